@@ -0,0 +1,182 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves many boards against one shared dictionary on a fixed pool of
+ * threads. Each thread keeps its own BoardSolver for its whole life, so the
+ * search scratch buffers are allocated once per thread rather than once per
+ * board. Call shutdown() when the solver is no longer needed.
+ */
+public class BatchSolver implements BatchSolverInterface {
+    private final ExecutorService executor;
+    private final int threads;
+
+    /**
+     * Creates a batch solver with one thread per available processor.
+     */
+    public BatchSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a batch solver.
+     *
+     * @param threads The number of threads to solve boards on. Must be greater than 0.
+     */
+    public BatchSolver(int threads) {
+        this.threads = threads;
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Solves each board on its own task.
+     *
+     * @param boards     The boards to solve. Must not be null.
+     * @param dictionary The dictionary to check against. Must not be changed while solving.
+     * @param quTiles    True if every Q cell stands for "qu".
+     * @return One result per board, in the same order as boards.
+     */
+    @Override
+    public List<BoardResult> solveAll(List<char[][]> boards, DictInterface dictionary, boolean quTiles) {
+        List<Callable<BoardResult>> tasks = new ArrayList<>(boards.size());
+        for (char[][] board : boards) {
+            tasks.add(() -> solve(board, dictionary, quTiles));
+        }
+
+        try {
+            List<BoardResult> results = new ArrayList<>(boards.size());
+            for (Future<BoardResult> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving boards", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to solve a board", e.getCause());
+        }
+    }
+
+    /**
+     * Generates the boards on the calling thread and hands them through a
+     * bounded queue to the solver threads, which solve each board as soon as
+     * it is ready. The Q cells are read as "qu" if the generator makes Qu
+     * tiles, so the results agree with a BoggleGame using the same generator.
+     *
+     * @param generator  The strategy used to generate the boards. Must not be null.
+     * @param count      The number of boards to generate.
+     * @param size       The dimension size of each board. Must be greater than 0.
+     * @param dictionary The dictionary to check against. Must not be changed while solving.
+     * @return One result per generated board, in the order generated.
+     */
+    @Override
+    public List<BoardResult> solveGenerated(BoardGenerator generator, int count, int size,
+                                            DictInterface dictionary) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be greater than 0: " + size);
+        }
+        boolean quTiles = generator.hasQuTiles();
+        SplittableRandom random = new SplittableRandom();
+        BoardResult[] results = new BoardResult[count];
+        BlockingQueue<Job> queue = new ArrayBlockingQueue<>(threads * 2);
+
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                for (Job job = queue.take(); job != Job.DONE; job = queue.take()) {
+                    results[job.index] = solve(job.board, dictionary, quTiles);
+                }
+                return null;
+            }));
+        }
+
+        boolean finished = false;
+        try {
+            for (int i = 0; i < count; i++) {
+                put(queue, new Job(i, generator.generate(size, random)), workers);
+            }
+            // One end marker per worker so that they all stop
+            for (int i = 0; i < threads; i++) {
+                put(queue, Job.DONE, workers);
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            finished = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving boards", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to solve a board", e.getCause());
+        } finally {
+            // Whatever stopped the batch early, including the generator
+            // throwing, workers still waiting on the queue would hold the pool
+            // threads forever
+            if (!finished) {
+                for (Future<?> worker : workers) {
+                    worker.cancel(true);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Stops the solver threads once any running batch has finished.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Puts a job in the queue, waiting for space. While waiting, checks that
+     * no worker has died, so a failed worker cannot leave the generator
+     * blocked on a full queue forever.
+     */
+    private static void put(BlockingQueue<Job> queue, Job job, List<Future<?>> workers)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(job, 100, TimeUnit.MILLISECONDS)) {
+            for (Future<?> worker : workers) {
+                if (worker.isDone()) {
+                    worker.get();
+                }
+            }
+        }
+    }
+
+    private static BoardResult solve(char[][] board, DictInterface dictionary, boolean quTiles) {
+        Set<String> words = new HashSet<>();
+        if (board != null) {
+            BoardSolver.forCurrentThread().findWords(new PreparedBoard(board, quTiles), dictionary,
+                                                     BoggleGame.MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH, words);
+        }
+        return new BoardResult(board, words);
+    }
+
+    /**
+     * A generated board waiting in the queue, with its position in the results.
+     */
+    private static class Job {
+        static final Job DONE = new Job(-1, null);
+
+        final int index;
+        final char[][] board;
+
+        Job(int index, char[][] board) {
+            this.index = index;
+            this.board = board;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.List;
+
+public interface BatchSolverInterface {
+
+    /**
+     * Finds all words of length three or more on each of a list of boards
+     * @param boards the boards to solve, as 2-d character arrays
+     * @param dictionary the DictInterface dictionary, shared by all the boards
+     * @return one BoardResult per board, in the same order as boards
+     */
+    public default List<BoardResult> solveAll(List<char[][]> boards, DictInterface dictionary) {
+        return solveAll(boards, dictionary, false);
+    }
+
+    /**
+     * Finds all words of length three or more on each of a list of boards,
+     * reading every Q cell as "qu" if the boards have Qu tiles
+     * @param boards the boards to solve, as 2-d character arrays
+     * @param dictionary the DictInterface dictionary, shared by all the boards
+     * @param quTiles true if every Q cell stands for "qu", as on boards from a
+     *        generator whose hasQuTiles() is true
+     * @return one BoardResult per board, in the same order as boards
+     */
+    public List<BoardResult> solveAll(List<char[][]> boards, DictInterface dictionary, boolean quTiles);
+
+    /**
+     * Generates boards and finds all words of length three or more on each of
+     * them, solving earlier boards while later ones are still being generated.
+     * The Q cells are read as "qu" if the generator makes Qu tiles, as
+     * BoggleGame does for the boards of the same generator
+     * @param generator the strategy used to generate the boards
+     * @param count the number of boards to generate
+     * @param size the dimension size of each board, greater than 0
+     * @param dictionary the DictInterface dictionary, shared by all the boards
+     * @return one BoardResult per generated board, in the order generated
+     */
+    public List<BoardResult> solveGenerated(BoardGenerator generator, int count, int size,
+                                            DictInterface dictionary);
+
+}
@@ -0,0 +1,262 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A fixed list of square boards generated from a range of seeds, which can be
+ * saved to a file and loaded back, so that benchmarks and regression tests
+ * replay exactly the same boards. Board i is the board generated from seed
+ * firstSeed + i.
+ *
+ * The boards come from one of the generators named in GENERATORS. The name
+ * and whether the generator makes Qu tiles are saved with the boards, so a
+ * corpus of dice boards is solved with its Q cells read as "qu" when it is
+ * replayed, as the game that made it would.
+ *
+ * The file holds a header (magic, version, board size, board count, first
+ * seed, generator name and Qu flag) followed by the letters of every board,
+ * row by row, one byte per cell. The boards are kept in that form in memory
+ * too and only turned into char[][] when asked for. Files of version 1, which
+ * had no generator in the header, are read as uniform boards.
+ *
+ * Run it as a program to write a corpus file:
+ *
+ *   java BoardCorpus file size firstSeed count [generator]
+ */
+public class BoardCorpus {
+    private static final int MAGIC = 0x424F4743;  // "BOGC"
+    private static final int VERSION = 2;
+    // The version before the generator was saved, whose boards were all uniform
+    private static final int UNIFORM_VERSION = 1;
+
+    /** The names of the generators a corpus can be made with. */
+    public static final List<String> GENERATORS =
+            List.of("uniform", "frequency", "frequency-qu", "classic-dice", "big-dice");
+
+    private final int size;
+    private final long firstSeed;
+    private final int count;
+    private final String generator;
+    private final boolean quTiles;
+    private final byte[] letters;
+
+    private BoardCorpus(int size, long firstSeed, int count, String generator, boolean quTiles, byte[] letters) {
+        this.size = size;
+        this.firstSeed = firstSeed;
+        this.count = count;
+        this.generator = generator;
+        this.quTiles = quTiles;
+        this.letters = letters;
+    }
+
+    /**
+     * Makes the generator with a given name.
+     *
+     * @param name One of the names in GENERATORS.
+     * @return A new generator.
+     * @throws IllegalArgumentException If the name is not in GENERATORS.
+     */
+    public static BoardGenerator generator(String name) {
+        switch (name) {
+            case "uniform":
+                return new UniformBoardGenerator();
+            case "frequency":
+                return new FrequencyBoardGenerator(false);
+            case "frequency-qu":
+                return new FrequencyBoardGenerator(true);
+            case "classic-dice":
+                return DiceBoardGenerator.classic();
+            case "big-dice":
+                return DiceBoardGenerator.big();
+            default:
+                throw new IllegalArgumentException("Unknown generator " + name + ", expected one of " + GENERATORS);
+        }
+    }
+
+    /**
+     * Generates the boards for a range of seeds.
+     *
+     * @param generator The name of the generator that makes the boards, one of GENERATORS.
+     * @param size      The dimension size of each board. Must be greater than 0.
+     * @param firstSeed The seed of the first board.
+     * @param count     The number of boards, one per seed from firstSeed on.
+     * @return The new corpus.
+     */
+    public static BoardCorpus generate(String generator, int size, long firstSeed, int count) {
+        if (size <= 0 || count < 0 || (long) size * size * count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot make " + count + " boards of size " + size);
+        }
+        BoardGenerator strategy = generator(generator);
+        // The same boards the game gives for each seed
+        BoggleGame game = new BoggleGame(null, strategy);
+        int cells = size * size;
+        byte[] letters = new byte[cells * count];
+        for (int i = 0; i < count; i++) {
+            char[][] board = game.generateBoggleBoard(size, firstSeed + i);
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    letters[i * cells + row * size + col] = (byte) board[row][col];
+                }
+            }
+        }
+        return new BoardCorpus(size, firstSeed, count, generator, strategy.hasQuTiles(), letters);
+    }
+
+    /**
+     * Reads a corpus written by save().
+     *
+     * @param path The file to read.
+     * @return The corpus in the file.
+     * @throws IOException If the file cannot be read or is not a corpus file.
+     */
+    public static BoardCorpus load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a board corpus file");
+            }
+            int version = in.readInt();
+            if (version != VERSION && version != UNIFORM_VERSION) {
+                throw new IOException(path + " is a board corpus of unknown version " + version);
+            }
+            int size = in.readInt();
+            int count = in.readInt();
+            long firstSeed = in.readLong();
+            String generator = "uniform";
+            boolean quTiles = false;
+            if (version == VERSION) {
+                generator = in.readUTF();
+                quTiles = in.readBoolean();
+            }
+            if (size <= 0 || count < 0 || (long) size * size * count > Integer.MAX_VALUE
+                    || !GENERATORS.contains(generator)) {
+                throw new IOException(path + " has a bad header");
+            }
+            byte[] letters = new byte[size * size * count];
+            in.readFully(letters);
+            return new BoardCorpus(size, firstSeed, count, generator, quTiles, letters);
+        } catch (EOFException e) {
+            throw new IOException(path + " is truncated", e);
+        }
+    }
+
+    /**
+     * Writes the corpus to a file that load() can read.
+     *
+     * @param path The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(size);
+            out.writeInt(count);
+            out.writeLong(firstSeed);
+            out.writeUTF(generator);
+            out.writeBoolean(quTiles);
+            out.write(letters);
+        }
+    }
+
+    /**
+     * @return The dimension size of every board.
+     */
+    public int boardSize() {
+        return size;
+    }
+
+    /**
+     * @return The number of boards.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return The name of the generator the boards were made with, one of GENERATORS.
+     */
+    public String generatorName() {
+        return generator;
+    }
+
+    /**
+     * @return True if every Q cell on the boards stands for "qu".
+     */
+    public boolean quTiles() {
+        return quTiles;
+    }
+
+    /**
+     * @return A game that reads the boards the way the game that made them
+     *         does, Qu tiles included.
+     */
+    public BoggleGame game() {
+        return new BoggleGame(null, generator(generator));
+    }
+
+    /**
+     * @param index The position of a board in the corpus.
+     * @return The seed the board was generated from.
+     */
+    public long seed(int index) {
+        return firstSeed + index;
+    }
+
+    /**
+     * @param index The position of a board in the corpus.
+     * @return A new copy of the board.
+     */
+    public char[][] board(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index " + index + ", count " + count);
+        }
+        char[][] board = new char[size][size];
+        int offset = index * size * size;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                board[row][col] = (char) (letters[offset + row * size + col] & 0xFF);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @return The boards as a read-only list, for example to pass to
+     *         BatchSolver.solveAll together with quTiles(). Each get() makes
+     *         a new copy of a board.
+     */
+    public List<char[][]> boards() {
+        return new AbstractList<char[][]>() {
+            @Override
+            public char[][] get(int index) {
+                return board(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4 || args.length > 5) {
+            System.out.println("Usage: java BoardCorpus file size firstSeed count [generator]");
+            System.out.println("generator: one of " + GENERATORS + " (default uniform)");
+            return;
+        }
+        int size = Integer.parseInt(args[1]);
+        long firstSeed = Long.parseLong(args[2]);
+        int count = Integer.parseInt(args[3]);
+        String generator = args.length == 5 ? args[4] : "uniform";
+        generate(generator, size, firstSeed, count).save(Paths.get(args[0]));
+    }
+}
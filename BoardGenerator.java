@@ -0,0 +1,22 @@
+import java.util.SplittableRandom;
+
+public interface BoardGenerator {
+
+    /**
+     * Fills a square board with letters drawn from a random generator. The
+     * same size and generator state must always give the same board
+     * @param size the dimension size of the board, greater than 0
+     * @param random the generator to draw from
+     * @return the board as a 2-d array of uppercase letters
+     */
+    public char[][] generate(int size, SplittableRandom random);
+
+    /**
+     * Tells whether the Q cells of the boards stand for "Qu", as on Boggle dice
+     * @return true if every Q cell stands for the two letters "qu"
+     */
+    public default boolean hasQuTiles() {
+        return false;
+    }
+
+}
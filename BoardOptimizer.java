@@ -0,0 +1,290 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Searches for boards that hold as many words as possible. Each chain starts
+ * from a generated board and repeatedly changes one tile to a random letter,
+ * keeping the change if the board scores at least as well, and otherwise
+ * keeping it with probability exp((newScore - score) / temperature). The
+ * temperature falls linearly to zero over the chain, so a chain explores
+ * early on and ends as a hill climb; a start temperature of 0 gives a plain
+ * hill climb.
+ *
+ * Chains are independent and run in parallel on a fixed pool of threads.
+ * On boards narrower than twice the longest dictionary word, each chain
+ * rescores a changed board in full with the BoardSolver owned by its
+ * thread. The changed board shares its neighbor tables with the board it
+ * came from (PreparedBoard.withLetter), so scoring allocates almost nothing.
+ * There a full solve is faster than an incremental one, which would re-solve
+ * in full anyway. On wider boards a chain keeps an IncrementalSolver,
+ * updates it for each change, and changes the tile back when the change is
+ * not kept.
+ * Call shutdown() when the optimizer is no longer needed.
+ */
+public class BoardOptimizer {
+    /**
+     * What a board scores: the number of words on it (WORDS) or the Boggle
+     * points for them (POINTS: 1 for three or four letters, 2 for five, 3 for
+     * six, 5 for seven and 11 for eight or more).
+     */
+    public enum Scoring { WORDS, POINTS }
+
+    private static final int[] POINTS_BY_LENGTH = {0, 0, 0, 1, 1, 2, 3, 5, 11};
+
+    private final DictInterface dictionary;
+    private final BoardGenerator generator;
+    private final Scoring scoring;
+    private final ExecutorService executor;
+
+    /**
+     * Creates an optimizer with one thread per available processor.
+     *
+     * @param dictionary The dictionary to score boards with. Must not be changed while optimizing.
+     * @param generator  The strategy for the starting boards. Its Qu tile setting is used for scoring.
+     * @param scoring    How to score a board.
+     */
+    public BoardOptimizer(DictInterface dictionary, BoardGenerator generator, Scoring scoring) {
+        this(dictionary, generator, scoring, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an optimizer.
+     *
+     * @param dictionary The dictionary to score boards with. Must not be changed while optimizing.
+     * @param generator  The strategy for the starting boards. Its Qu tile setting is used for scoring.
+     * @param scoring    How to score a board.
+     * @param threads    The number of threads to run chains on. Must be greater than 0.
+     */
+    public BoardOptimizer(DictInterface dictionary, BoardGenerator generator, Scoring scoring, int threads) {
+        this.dictionary = dictionary;
+        this.generator = generator;
+        this.scoring = scoring;
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Runs independent chains and returns the best boards seen by any of them.
+     * The same arguments always give the same boards.
+     *
+     * @param size             The dimension size of the boards. Must be greater than 0.
+     * @param chains           The number of chains to run.
+     * @param steps            The number of tile changes tried in each chain.
+     * @param startTemperature The temperature at the start of each chain, or 0 for hill climbing.
+     * @param topK             The number of boards to return.
+     * @param seed             The seed that all the chains' random choices come from.
+     * @return Up to topK different boards, best score first.
+     */
+    public List<ScoredBoard> optimize(int size, int chains, int steps, double startTemperature, int topK,
+                                      long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Callable<List<ScoredBoard>>> tasks = new ArrayList<>(chains);
+        for (int i = 0; i < chains; i++) {
+            SplittableRandom chainRandom = random.split();
+            tasks.add(() -> new Chain(size, topK, chainRandom).run(steps, startTemperature));
+        }
+
+        TopBoards best = new TopBoards(topK);
+        try {
+            for (Future<List<ScoredBoard>> future : executor.invokeAll(tasks)) {
+                for (ScoredBoard board : future.get()) {
+                    best.offer(key(board.board), board.score, board.board);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while optimizing boards", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to optimize boards", e.getCause());
+        }
+        return best.sorted();
+    }
+
+    /**
+     * Stops the chain threads once any running optimization has finished.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static String key(char[][] board) {
+        StringBuilder sb = new StringBuilder();
+        for (char[] row : board) {
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * One annealing chain. Runs on a single thread, so it can keep its scratch
+     * state in fields.
+     */
+    private class Chain implements Consumer<CharSequence> {
+        private final int size;
+        private final SplittableRandom random;
+        private final TopBoards best;
+        private final BoardSolver solver = BoardSolver.forCurrentThread();
+        private int score;
+        // The chain's current board: prepared and solved in full after each
+        // change, or on large boards kept up to date by an IncrementalSolver
+        private PreparedBoard board;
+        private IncrementalSolver incremental;
+
+        Chain(int size, int topK, SplittableRandom random) {
+            this.size = size;
+            this.random = random;
+            this.best = new TopBoards(topK);
+        }
+
+        List<ScoredBoard> run(int steps, double startTemperature) {
+            char[][] start = generator.generate(size, random);
+            // An incremental update only pays once most tiles are too far from
+            // an edge for a word through them to reach every cell; on smaller
+            // boards IncrementalSolver re-solves in full anyway, at more cost
+            if (size >= 2 * dictionary.maxWordLength()) {
+                incremental = new IncrementalSolver(start, dictionary, generator.hasQuTiles());
+            } else {
+                board = new PreparedBoard(start, generator.hasQuTiles());
+            }
+            int current = incremental != null ? score(incremental) : score(board);
+            offer(current);
+
+            for (int step = 0; step < steps; step++) {
+                int cell = random.nextInt(size * size);
+                char letter = (char) ('a' + random.nextInt(26));
+                char old = incremental != null ? incremental.letter(cell / size, cell % size) : board.letter(cell);
+                if (letter == old) {
+                    continue;
+                }
+                int next;
+                PreparedBoard changed = null;
+                if (incremental != null) {
+                    incremental.setLetter(cell / size, cell % size, letter);
+                    next = score(incremental);
+                } else {
+                    changed = board.withLetter(cell, letter);
+                    next = score(changed);
+                }
+
+                double temperature = startTemperature * (steps - step) / steps;
+                if (next >= current
+                        || (temperature > 0 && random.nextDouble() < Math.exp((next - current) / temperature))) {
+                    if (changed != null) {
+                        board = changed;
+                    }
+                    current = next;
+                    offer(current);
+                } else if (incremental != null) {
+                    incremental.setLetter(cell / size, cell % size, old);
+                }
+            }
+            return best.sorted();
+        }
+
+        private int score(PreparedBoard board) {
+            score = 0;
+            solver.findWords(board, dictionary, BoggleGame.MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH, this);
+            return score;
+        }
+
+        private int score(IncrementalSolver incremental) {
+            if (scoring == Scoring.WORDS) {
+                return incremental.count();
+            }
+            score = 0;
+            for (String word : incremental.words()) {
+                accept(word);
+            }
+            return score;
+        }
+
+        // Called by the solver for each word found
+        @Override
+        public void accept(CharSequence word) {
+            if (scoring == Scoring.WORDS) {
+                score++;
+            } else {
+                score += POINTS_BY_LENGTH[Math.min(word.length(), POINTS_BY_LENGTH.length - 1)];
+            }
+        }
+
+        private void offer(int score) {
+            if (!best.wouldKeep(score)) {
+                return;
+            }
+            char[][] letters;
+            if (incremental != null) {
+                letters = incremental.board();
+            } else {
+                letters = new char[size][size];
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        letters[i][j] = Character.toUpperCase(board.letter(i * size + j));
+                    }
+                }
+            }
+            best.offer(key(letters), score, letters);
+        }
+    }
+
+    /**
+     * The topK best different boards offered so far. The worst one kept is at
+     * the head of the queue, so it can be dropped when a better board comes.
+     */
+    private static class TopBoards {
+        private final int topK;
+        private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingInt(e -> e.score));
+        private final Map<String, Entry> byKey = new HashMap<>();
+
+        TopBoards(int topK) {
+            this.topK = topK;
+        }
+
+        boolean wouldKeep(int score) {
+            return topK > 0 && (queue.size() < topK || score > queue.peek().score);
+        }
+
+        void offer(String key, int score, char[][] board) {
+            if (!wouldKeep(score) || byKey.containsKey(key)) {
+                return;
+            }
+            Entry entry = new Entry(key, new ScoredBoard(board, score));
+            queue.add(entry);
+            byKey.put(key, entry);
+            if (queue.size() > topK) {
+                byKey.remove(queue.poll().key);
+            }
+        }
+
+        List<ScoredBoard> sorted() {
+            List<ScoredBoard> boards = new ArrayList<>(queue.size());
+            for (Entry entry : queue) {
+                boards.add(entry.board);
+            }
+            boards.sort(Comparator.comparingInt((ScoredBoard b) -> b.score).reversed());
+            return boards;
+        }
+
+        private static class Entry {
+            final String key;
+            final ScoredBoard board;
+            final int score;
+
+            Entry(String key, ScoredBoard board) {
+                this.key = key;
+                this.board = board;
+                this.score = board.score;
+            }
+        }
+    }
+}
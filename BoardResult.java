@@ -0,0 +1,21 @@
+import java.util.Set;
+
+/**
+ * The words found on one board by a BatchSolverInterface.
+ */
+public class BoardResult {
+    public final char[][] board;
+    public final Set<String> words;
+
+    public BoardResult(char[][] board, Set<String> words) {
+        this.board = board;
+        this.words = words;
+    }
+
+    /**
+     * @return The number of unique words found on the board.
+     */
+    public int count() {
+        return words.size();
+    }
+}
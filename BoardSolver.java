@@ -0,0 +1,1121 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import jdk.jfr.EventType;
+
+/**
+ * Depth-first search engine for finding dictionary words on a PreparedBoard.
+ *
+ * The search walks the board and the dictionary together using the
+ * DictInterface root()/step() handles, so each new letter costs one step.
+ * Visited cells are tracked in a single long bitmask for boards of up to 64
+ * cells (8x8) and in a reusable long[] bitset for bigger boards, and the word
+ * being built lives in a reusable char[] buffer. Words already found are
+ * remembered in a bitset indexed by DictInterface.wordId, so each word is
+ * reported once without hashing it. The search itself allocates nothing;
+ * only the caller decides whether to turn a found word into a String.
+ *
+ * For a big board and a small dictionary it is cheaper to go the other way
+ * round: take each dictionary word, skip it at once if the board does not
+ * have enough of each of its letters, and otherwise look for a path only
+ * from the cells holding its first letter. findWords and findWordPaths pick
+ * between the two directions from the board and dictionary sizes, unless a
+ * mode is set with setMode. The same indexed path match answers
+ * containsWord and findPath, which check a single word against the board.
+ *
+ * A BoardSolver keeps scratch state between calls, so one instance must not
+ * be used by two threads at the same time. Reusing an instance for many
+ * searches avoids reallocating the scratch buffers. To search one board on
+ * several threads, use findWordsParallel, which gives each worker thread its
+ * own solver. Within the package, forCurrentThread() gives each thread one
+ * solver to reuse for every search it makes.
+ */
+public class BoardSolver {
+    /** Use as maxLength when words of any length should be found. */
+    public static final int NO_MAX_LENGTH = Integer.MAX_VALUE;
+
+    /**
+     * Which way round to search: from the board cells (BOARD), from the
+     * dictionary words (DICTIONARY), or whichever looks cheaper (AUTO).
+     */
+    public enum Mode { AUTO, BOARD, DICTIONARY }
+
+    // The dictionary-driven search is chosen when the dictionary has fewer
+    // words than this many times the number of cells. Measured with random
+    // samples of dict8.txt: the board-driven search stays ahead until the
+    // dictionary has about as many words as the board has cells.
+    private static final int WORDS_PER_CELL = 1;
+
+    // Stands in the cells buffer for the u of a Qu tile, which has no cell of its own
+    private static final int NO_CELL = -1;
+
+    private static final ThreadLocal<BoardSolver> WORKER_SOLVER = ThreadLocal.withInitial(BoardSolver::new);
+
+    private static final EventType SEARCH_EVENT = EventType.getEventType(SearchEvent.class);
+
+    private char[] path = new char[16];
+    private int[] cells = new int[16];
+    private long[] visited = new long[0];
+    private long[] seen = new long[0];
+    private final int[] letterNeed = new int[128];
+    private final PathView pathView = new PathView();
+    private Mode mode = Mode.AUTO;
+    // True from the start of a search until it finishes, even by an exception
+    private boolean inUse;
+
+    // State of the current search
+    private DictInterface dictionary;
+    private byte[] letters;
+    private int[] neighborStart;
+    private int[] neighbors;
+    private int[] letterStart;
+    private int[] cellsByLetter;
+    private boolean quTiles;
+    private int cols;
+    private int minLength;
+    private int maxLength;
+    private boolean boundedMax;
+    private Consumer<CharSequence> wordConsumer;
+    private Map<String, ArrayList<Tile>> wordPaths;
+    private Map<String, int[]> wordCells;
+    private int throughCell;
+    private AtomicLongArray sharedSeen;
+    private boolean stopAtFirst;
+    private boolean stopped;
+    private String firstWord;
+
+    // Counts for the current search, added to SolverMetrics when it ends, or
+    // to the solve it is part of. The node and lookup counts are only kept
+    // when SolverMetrics.COUNT_NODES is set.
+    private boolean measuring;
+    private SolveCounts partOf;
+    private long searchStart;
+    private boolean dictionaryDriven;
+    private long nodeCount;
+    private final long[] lookupCount = new long[4];
+    private long lengthPruneCount;
+    private long wordCount;
+    private SearchEvent searchEvent;
+
+    /**
+     * Gives the calling thread's own solver, which is reused by every search
+     * the thread makes, so a search allocates nothing. A consumer called
+     * during a search may start another one on the same thread, for example
+     * by checking a word on the board; that search gets a new solver instead,
+     * since the thread's one is still busy.
+     *
+     * @return A BoardSolver for one search on the calling thread.
+     */
+    static BoardSolver forCurrentThread() {
+        BoardSolver solver = WORKER_SOLVER.get();
+        return solver.inUse ? new BoardSolver() : solver;
+    }
+
+    /**
+     * Sets which way round findWords and findWordPaths search. The default is AUTO.
+     *
+     * @param mode The search direction to use.
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Guesses which search direction is cheaper. The dictionary size is taken
+     * from wordIdLimit, which is quick to get and never less than the number
+     * of words.
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against.
+     * @return True if a dictionary-driven search is expected to be cheaper than a board-driven one.
+     */
+    public static boolean preferDictionarySearch(PreparedBoard board, DictInterface dictionary) {
+        return (long) dictionary.wordIdLimit() < (long) board.cellCount() * WORDS_PER_CELL;
+    }
+
+    /**
+     * Passes every dictionary word found on the board with a length between
+     * minLength and maxLength (inclusive) to a consumer, once per word, as soon
+     * as it is found. Words are lowercase. The CharSequence given to the
+     * consumer is a view of the solver's path buffer: it is only valid during
+     * the call, so use toString() to keep the word.
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against.
+     * @param minLength  The shortest word length to report.
+     * @param maxLength  The longest word length to report, or NO_MAX_LENGTH.
+     * @param consumer   Receives each unique word found.
+     */
+    public void findWords(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                          Consumer<CharSequence> consumer) {
+        start(board, dictionary, minLength, maxLength);
+        try {
+            this.wordConsumer = consumer;
+            search(board, dictionary);
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Adds every dictionary word found on the board with a length between
+     * minLength and maxLength (inclusive) to a set. Words are added in lowercase.
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against.
+     * @param minLength  The shortest word length to collect.
+     * @param maxLength  The longest word length to collect, or NO_MAX_LENGTH.
+     * @param foundWords The set to add found words to.
+     */
+    public void findWords(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                          Set<String> foundWords) {
+        findWords(board, dictionary, minLength, maxLength, word -> foundWords.add(word.toString()));
+    }
+
+    /**
+     * Finds every dictionary word on the board with a length between minLength
+     * and maxLength (inclusive), together with the tiles of the first path
+     * found for it.
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against.
+     * @param minLength  The shortest word length to collect.
+     * @param maxLength  The longest word length to collect, or NO_MAX_LENGTH.
+     * @param wordPaths  The map to put each lowercase word found and its path in.
+     */
+    public void findWordPaths(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                              Map<String, ArrayList<Tile>> wordPaths) {
+        start(board, dictionary, minLength, maxLength);
+        try {
+            this.wordPaths = wordPaths;
+            search(board, dictionary);
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Like findWordPaths, but gives each path as the cell numbers along it.
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against.
+     * @param minLength  The shortest word length to collect.
+     * @param maxLength  The longest word length to collect, or NO_MAX_LENGTH.
+     * @param wordCells  The map to put each lowercase word found and the cell numbers of its path in.
+     */
+    public void findWordCells(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                              Map<String, int[]> wordCells) {
+        start(board, dictionary, minLength, maxLength);
+        try {
+            this.wordCells = wordCells;
+            search(board, dictionary);
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Finds every dictionary word with a path through one given cell, with the
+     * cells of one such path for each. Only paths that can still reach the
+     * cell within maxLength letters are explored, so on a big board with a
+     * bounded maxLength this visits only the neighborhood of the cell.
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against.
+     * @param minLength  The shortest word length to collect.
+     * @param maxLength  The longest word length to collect, or NO_MAX_LENGTH.
+     * @param cell       The cell every path must pass through.
+     * @param wordCells  The map to put each lowercase word found and the cell numbers of its path in.
+     */
+    public void findWordPathsThrough(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                                     int cell, Map<String, int[]> wordCells) {
+        start(board, dictionary, minLength, maxLength);
+        try {
+            this.wordCells = wordCells;
+            this.throughCell = cell;
+            long root = dictionary.root();
+            for (int first = 0; first < board.cellCount(); first++) {
+                if (first != cell && distance(first, cell) > this.maxLength - 1) {
+                    continue;
+                }
+                char c = (char) letters[first];
+                long prefix = dictionary.step(root, c);
+                if (SolverMetrics.COUNT_NODES) {
+                    lookupCount[DictInterface.status(prefix)]++;
+                }
+                if (DictInterface.status(prefix) != 0) {
+                    path[0] = c;
+                    cells[0] = first;
+                    searchThrough(first, prefix, 1, first == cell);
+                }
+            }
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Finds the same words as findWords, but spreads the start cells over the
+     * threads of a ForkJoinPool. Each worker thread searches with its own
+     * BoardSolver. The workers share one atomic bitset of word ids, so each
+     * word is still reported exactly once, and the words found are exactly
+     * those a sequential search would find. The dictionary is only read, and
+     * is shared by all the workers.
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against. Must not be changed during the search.
+     * @param minLength  The shortest word length to report.
+     * @param maxLength  The longest word length to report, or NO_MAX_LENGTH.
+     * @param pool       The pool to run the search in.
+     * @param consumer   Receives each unique word found. Called from the worker threads, so
+     *                   it must be thread-safe.
+     */
+    public static void findWordsParallel(PreparedBoard board, DictInterface dictionary, int minLength,
+                                         int maxLength, ForkJoinPool pool, Consumer<CharSequence> consumer) {
+        AtomicLongArray sharedSeen = new AtomicLongArray((dictionary.wordIdLimit() + 63) / 64);
+        // A few tasks per worker lets busy workers' cells be stolen by idle ones
+        int grain = Math.max(1, board.cellCount() / (pool.getParallelism() * 4));
+        SolveCounts counts = new SolveCounts(board.cellCount());
+        try {
+            pool.invoke(new SearchTask(board, dictionary, minLength, maxLength, consumer, sharedSeen, counts,
+                                       0, board.cellCount(), grain));
+        } finally {
+            counts.record();
+        }
+    }
+
+    /**
+     * Same as findWordsParallel above, collecting the words into a set.
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against. Must not be changed during the search.
+     * @param minLength  The shortest word length to collect.
+     * @param maxLength  The longest word length to collect, or NO_MAX_LENGTH.
+     * @param pool       The pool to run the search in.
+     * @return A thread-safe set of the lowercase words found.
+     */
+    public static Set<String> findWordsParallel(PreparedBoard board, DictInterface dictionary, int minLength,
+                                                int maxLength, ForkJoinPool pool) {
+        Set<String> foundWords = ConcurrentHashMap.newKeySet();
+        findWordsParallel(board, dictionary, minLength, maxLength, pool, word -> foundWords.add(word.toString()));
+        return foundWords;
+    }
+
+    /**
+     * Searches a range of start cells, splitting it in half until it is no
+     * bigger than the grain size.
+     */
+    @SuppressWarnings("serial")
+    private static class SearchTask extends RecursiveAction {
+        private final PreparedBoard board;
+        private final DictInterface dictionary;
+        private final int minLength;
+        private final int maxLength;
+        private final Consumer<CharSequence> consumer;
+        private final AtomicLongArray sharedSeen;
+        private final SolveCounts counts;
+        private final int firstCell;
+        private final int endCell;
+        private final int grain;
+
+        SearchTask(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                   Consumer<CharSequence> consumer, AtomicLongArray sharedSeen, SolveCounts counts,
+                   int firstCell, int endCell, int grain) {
+            this.board = board;
+            this.dictionary = dictionary;
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.consumer = consumer;
+            this.sharedSeen = sharedSeen;
+            this.counts = counts;
+            this.firstCell = firstCell;
+            this.endCell = endCell;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (endCell - firstCell <= grain) {
+                BoardSolver solver = forCurrentThread();
+                solver.start(board, dictionary, minLength, maxLength, counts);
+                try {
+                    solver.wordConsumer = consumer;
+                    solver.sharedSeen = sharedSeen;
+                    solver.searchCells(firstCell, endCell);
+                } finally {
+                    solver.finish();
+                }
+                return;
+            }
+            int middle = (firstCell + endCell) >>> 1;
+            invokeAll(new SearchTask(board, dictionary, minLength, maxLength, consumer, sharedSeen, counts,
+                                     firstCell, middle, grain),
+                      new SearchTask(board, dictionary, minLength, maxLength, consumer, sharedSeen, counts,
+                                     middle, endCell, grain));
+        }
+    }
+
+    /**
+     * Board-driven search from the start cells in a rectangle of the board
+     * only, for TiledSolver. Words already set in sharedSeen are skipped, and
+     * each new word is set there before it is reported. The counts of the
+     * search are added to the solve the rectangle is part of.
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against.
+     * @param minLength  The shortest word length to report.
+     * @param maxLength  The longest word length to report, or NO_MAX_LENGTH.
+     * @param top        The first row of start cells.
+     * @param left       The first column of start cells.
+     * @param height     The number of rows of start cells.
+     * @param width      The number of columns of start cells.
+     * @param sharedSeen The word ids already reported, shared between solvers.
+     * @param counts     The counts of the whole solve.
+     * @param consumer   Receives each word found that was not in sharedSeen.
+     */
+    void findWordsFrom(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                       int top, int left, int height, int width, AtomicLongArray sharedSeen,
+                       SolveCounts counts, Consumer<CharSequence> consumer) {
+        start(board, dictionary, minLength, maxLength, counts);
+        try {
+            this.wordConsumer = consumer;
+            this.sharedSeen = sharedSeen;
+            for (int row = top; row < top + height; row++) {
+                int first = row * board.cols() + left;
+                searchCells(first, first + width);
+            }
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Finds any one dictionary word on the board with a length between
+     * minLength and maxLength (inclusive).
+     *
+     * @param board      The prepared board to search.
+     * @param dictionary The dictionary to check against.
+     * @param minLength  The shortest word length to accept.
+     * @param maxLength  The longest word length to accept, or NO_MAX_LENGTH.
+     * @return A lowercase word found on the board, or null if there is none.
+     */
+    public String findAnyWord(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength) {
+        start(board, dictionary, minLength, maxLength);
+        try {
+            stopAtFirst = true;
+            searchCells(0, board.cellCount());
+            return firstWord;
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Checks if a word can be formed on the board following the rules of the
+     * Boggle game. Letters are matched ignoring case.
+     *
+     * @param board The prepared board to search.
+     * @param word  The word to look for.
+     * @return True if the word can be found on the board.
+     */
+    public boolean containsWord(PreparedBoard board, CharSequence word) {
+        return matchOnBoard(board, word);
+    }
+
+    /**
+     * Finds a path spelling a word on the board.
+     *
+     * @param board The prepared board to search.
+     * @param word  The word to look for.
+     * @return The tiles of the path, in word order, or null if the word cannot be found.
+     */
+    public ArrayList<Tile> findPath(PreparedBoard board, CharSequence word) {
+        if (!matchOnBoard(board, word)) {
+            return null;
+        }
+        return tiles(word.length(), board.cols());
+    }
+
+    /**
+     * Finds a path spelling a word on the board without allocating anything.
+     *
+     * @param board     The prepared board to search.
+     * @param word      The word to look for.
+     * @param pathCells Receives the cell numbers of the path, in word order, if the
+     *                  word is found. Must have room for word.length() cells.
+     * @return The number of cells on the path, which is less than the word length
+     *         if the path goes through Qu tiles, or -1 if the word cannot be found.
+     */
+    public int findPath(PreparedBoard board, CharSequence word, int[] pathCells) {
+        if (!matchOnBoard(board, word)) {
+            return -1;
+        }
+        int count = 0;
+        for (int i = 0; i < word.length(); i++) {
+            if (cells[i] != NO_CELL) {
+                pathCells[count++] = cells[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lowercases the word into the path buffer and looks for it on the board.
+     * On success the cells of the path are left in the cells buffer.
+     */
+    private boolean matchOnBoard(PreparedBoard board, CharSequence word) {
+        int length = word.length();
+        if (length == 0 || length > maxLetters(board)) {
+            return false;
+        }
+        while (path.length < length) {
+            growPath();
+        }
+        for (int i = 0; i < length; i++) {
+            path[i] = Character.toLowerCase(word.charAt(i));
+        }
+        pathView.length = length;
+
+        use(board);
+        try {
+            return fitsBoard(pathView) && matchWord(pathView);
+        } finally {
+            finish();
+        }
+    }
+
+    private void start(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength) {
+        start(board, dictionary, minLength, maxLength, null);
+    }
+
+    /**
+     * Sets up a search.
+     *
+     * @param partOf The solve this search is one part of, which is measured as a
+     *               whole, or null to measure this search on its own.
+     */
+    private void start(PreparedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                       SolveCounts partOf) {
+        use(board);
+        this.dictionary = dictionary;
+        // No path needs to grow past the longest word, and when the caller
+        // wants shorter words than that, prefixes that need too many more
+        // letters to make a word are dropped as well
+        int longest = dictionary.maxWordLength();
+        this.minLength = minLength;
+        this.maxLength = Math.min(maxLength, longest);
+        this.boundedMax = maxLength < longest;
+        this.stopAtFirst = false;
+        this.stopped = false;
+        this.firstWord = null;
+
+        measuring = true;
+        this.partOf = partOf;
+        dictionaryDriven = false;
+        nodeCount = 0;
+        Arrays.fill(lookupCount, 0L);
+        lengthPruneCount = 0;
+        wordCount = 0;
+        if (partOf == null && SEARCH_EVENT.isEnabled()) {
+            searchEvent = new SearchEvent();
+            searchEvent.begin();
+        }
+        searchStart = System.nanoTime();
+
+        int seenWords = (dictionary.wordIdLimit() + 63) / 64;
+        if (seen.length < seenWords) {
+            seen = new long[seenWords];
+        } else {
+            Arrays.fill(seen, 0, seenWords, 0L);
+        }
+    }
+
+    private void use(PreparedBoard board) {
+        this.inUse = true;
+        this.letters = board.letters;
+        this.neighborStart = board.neighborStart;
+        this.neighbors = board.neighbors;
+        this.letterStart = board.letterStart;
+        this.cellsByLetter = board.cellsByLetter;
+        this.quTiles = board.quTiles();
+        this.cols = board.cols();
+
+        int cellCount = letters.length;
+        if (visited.length < (cellCount + 63) / 64) {
+            visited = new long[(cellCount + 63) / 64];
+        }
+    }
+
+    // The longest word a path over every cell of the board could spell
+    private static int maxLetters(PreparedBoard board) {
+        return board.quTiles() ? 2 * board.cellCount() : board.cellCount();
+    }
+
+    // Drop references so the solver does not keep a board or dictionary alive
+    private void finish() {
+        if (measuring) {
+            endMeasuring();
+        }
+        dictionary = null;
+        letters = null;
+        neighborStart = null;
+        neighbors = null;
+        letterStart = null;
+        cellsByLetter = null;
+        wordConsumer = null;
+        wordPaths = null;
+        wordCells = null;
+        sharedSeen = null;
+        firstWord = null;
+        inUse = false;
+    }
+
+    /**
+     * Adds the counts of the search that just ended to SolverMetrics, and
+     * records it in Flight Recorder if the event is enabled. A search that is
+     * part of a bigger solve adds its counts to that solve instead.
+     */
+    private void endMeasuring() {
+        measuring = false;
+        if (partOf != null) {
+            partOf.add(dictionaryDriven, nodeCount, lookupCount, lengthPruneCount, wordCount);
+            partOf = null;
+            return;
+        }
+        SolverMetrics.get().record(System.nanoTime() - searchStart, nodeCount, lookupCount, lengthPruneCount,
+                                   wordCount);
+        if (searchEvent != null) {
+            searchEvent.end();
+            searchEvent.cells = letters.length;
+            searchEvent.dictionaryDriven = dictionaryDriven;
+            searchEvent.nodes = nodeCount;
+            searchEvent.lookups = lookupCount[0] + lookupCount[1] + lookupCount[2] + lookupCount[3];
+            searchEvent.deadEnds = lookupCount[0];
+            searchEvent.lengthPrunes = lengthPruneCount;
+            searchEvent.words = wordCount;
+            searchEvent.commit();
+            searchEvent = null;
+        }
+    }
+
+    /**
+     * The counts of one solve that is split into parts searched by several
+     * solvers, such as the start cell ranges of findWordsParallel or the tiles
+     * of TiledSolver. Each part adds its counts here when it ends, and the
+     * solve is then measured once as a whole, with the wall time from start
+     * to end, so SolverMetrics and Flight Recorder see one search per board
+     * rather than one per part.
+     */
+    static final class SolveCounts {
+        private final long cells;
+        private final long start;
+        private final SearchEvent event;
+        private boolean dictionaryDriven;
+        private long nodes;
+        private final long[] lookups = new long[4];
+        private long lengthPrunes;
+        private long words;
+
+        /**
+         * Starts measuring a solve.
+         *
+         * @param cells The number of cells on the whole board.
+         */
+        SolveCounts(long cells) {
+            this.cells = cells;
+            if (SEARCH_EVENT.isEnabled()) {
+                event = new SearchEvent();
+                event.begin();
+            } else {
+                event = null;
+            }
+            this.start = System.nanoTime();
+        }
+
+        // A few parts per worker thread, so the lock is taken rarely
+        synchronized void add(boolean partDictionaryDriven, long partNodes, long[] partLookups,
+                              long partPrunes, long partWords) {
+            dictionaryDriven |= partDictionaryDriven;
+            nodes += partNodes;
+            for (int status = 0; status < lookups.length; status++) {
+                lookups[status] += partLookups[status];
+            }
+            lengthPrunes += partPrunes;
+            words += partWords;
+        }
+
+        /**
+         * Ends the solve and records it, once every part has ended.
+         */
+        synchronized void record() {
+            SolverMetrics.get().record(System.nanoTime() - start, nodes, lookups, lengthPrunes, words);
+            if (event != null) {
+                event.end();
+                event.cells = cells;
+                event.dictionaryDriven = dictionaryDriven;
+                event.nodes = nodes;
+                event.lookups = lookups[0] + lookups[1] + lookups[2] + lookups[3];
+                event.deadEnds = lookups[0];
+                event.lengthPrunes = lengthPrunes;
+                event.words = words;
+                event.commit();
+            }
+        }
+    }
+
+    private void search(PreparedBoard board, DictInterface dictionary) {
+        boolean byDictionary = (mode == Mode.AUTO) ? preferDictionarySearch(board, dictionary)
+                                                   : (mode == Mode.DICTIONARY);
+        dictionaryDriven = byDictionary;
+        if (byDictionary) {
+            int longest = maxLetters(board);
+            dictionary.forEachWord(word -> searchWord(word, longest));
+        } else {
+            searchCells(0, board.cellCount());
+        }
+    }
+
+    /**
+     * Dictionary-driven search step: reports the word if it can be found on the board.
+     *
+     * @param word    A dictionary word.
+     * @param longest The longest word the board could hold.
+     */
+    private void searchWord(CharSequence word, int longest) {
+        int length = word.length();
+        if (length < minLength || length > maxLength || length > longest || !fitsBoard(word)) {
+            return;
+        }
+        while (path.length < length) {
+            growPath();
+        }
+        if (matchWord(word)) {
+            for (int i = 0; i < length; i++) {
+                path[i] = word.charAt(i);
+            }
+            report(length);
+        }
+    }
+
+    /**
+     * Checks that the board has at least as many of each letter as the word needs.
+     *
+     * @param word The word to check.
+     * @return False if some letter of the word occurs on the board fewer times than in the word.
+     */
+    private boolean fitsBoard(CharSequence word) {
+        boolean fits = true;
+        int checked = 0;
+        while (checked < word.length()) {
+            char c = word.charAt(checked++);
+            if (c >= 128 || ++letterNeed[c] > letterStart[c + 1] - letterStart[c]) {
+                fits = false;
+                break;
+            }
+            // The u after a q comes with the Qu tile
+            if (c == 'q' && quTiles && checked < word.length() && word.charAt(checked) == 'u') {
+                checked++;
+            }
+        }
+        // Reset the counts for the next word
+        for (int i = 0; i < checked; i++) {
+            char c = word.charAt(i);
+            if (c < 128) {
+                letterNeed[c]--;
+            }
+            if (c == 'q' && quTiles && i + 1 < checked && word.charAt(i + 1) == 'u') {
+                i++;
+            }
+        }
+        return fits;
+    }
+
+    /**
+     * Looks for a path spelling the word, starting only from cells that hold its
+     * first letter. On success the cells of the path are left in the cells buffer.
+     *
+     * @param word The word to look for. Must not be empty.
+     * @return True if the word can be found on the board.
+     */
+    private boolean matchWord(CharSequence word) {
+        char first = word.charAt(0);
+        if (first >= 128) {
+            return false;
+        }
+        for (int k = letterStart[first], end = letterStart[first + 1]; k < end; k++) {
+            if (matchFrom(cellsByLetter[k], word, 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * DFS along the letters of a word.
+     *
+     * @param cell  A cell holding letter index of the word, not on the path yet.
+     * @param word  The word to look for.
+     * @param index The index of the letter in cell.
+     * @return True if the rest of the word can be found from the cell.
+     */
+    private boolean matchFrom(int cell, CharSequence word, int index) {
+        if (SolverMetrics.COUNT_NODES) {
+            nodeCount++;
+        }
+        cells[index] = cell;
+        if (quTiles && letters[cell] == 'q') {
+            if (index + 1 == word.length() || word.charAt(index + 1) != 'u') {
+                return false;
+            }
+            cells[++index] = NO_CELL;
+        }
+        if (index == word.length() - 1) {
+            return true;
+        }
+        visited[cell >>> 6] |= 1L << cell;
+        char next = word.charAt(index + 1);
+        boolean found = false;
+        for (int k = neighborStart[cell], end = neighborStart[cell + 1]; k < end && !found; k++) {
+            int neighbor = neighbors[k];
+            if (letters[neighbor] == next && (visited[neighbor >>> 6] & (1L << neighbor)) == 0) {
+                found = matchFrom(neighbor, word, index + 1);
+            }
+        }
+        visited[cell >>> 6] &= ~(1L << cell);
+        return found;
+    }
+
+    private void searchCells(int firstCell, int endCell) {
+        long root = dictionary.root();
+        boolean small = letters.length <= 64;
+        for (int cell = firstCell; cell < endCell && !stopped; cell++) {
+            char c = (char) letters[cell];
+            long prefix = dictionary.step(root, c);
+            if (SolverMetrics.COUNT_NODES) {
+                lookupCount[DictInterface.status(prefix)]++;
+            }
+            if (DictInterface.status(prefix) == 0) {
+                continue;
+            }
+            path[0] = c;
+            cells[0] = cell;
+            if (small) {
+                searchSmall(cell, prefix, 1, 0L);
+            } else {
+                searchLarge(cell, prefix, 1);
+            }
+        }
+    }
+
+    /**
+     * DFS for boards of up to 64 cells. The visited set is a bitmask passed by
+     * value, so there is nothing to undo when backtracking.
+     *
+     * @param cell    The cell the path currently ends at.
+     * @param prefix  The dictionary handle for the letters on the path.
+     * @param depth   The number of letters on the path.
+     * @param visited The cells on the path before this one.
+     */
+    private void searchSmall(int cell, long prefix, int depth, long visited) {
+        if (SolverMetrics.COUNT_NODES) {
+            nodeCount++;
+        }
+        if (quTiles && letters[cell] == 'q') {
+            prefix = stepQu(prefix, depth++);
+        }
+        int status = DictInterface.status(prefix);
+        if ((status & 2) != 0 && depth >= minLength && depth <= maxLength) {
+            foundWord(prefix, depth);
+        }
+        if ((status & 1) == 0 || depth >= maxLength || stopped) {
+            return;
+        }
+        if (!canGrow(prefix, depth)) {
+            lengthPruneCount++;
+            return;
+        }
+        visited |= 1L << cell;
+        // Room for the next letter, and the u after it if it is a Qu tile
+        if (depth + 1 >= path.length) {
+            growPath();
+        }
+
+        for (int k = neighborStart[cell], end = neighborStart[cell + 1]; k < end; k++) {
+            int next = neighbors[k];
+            if ((visited & (1L << next)) != 0) {
+                continue;
+            }
+            char c = (char) letters[next];
+            long nextPrefix = dictionary.step(prefix, c);
+            if (SolverMetrics.COUNT_NODES) {
+                lookupCount[DictInterface.status(nextPrefix)]++;
+            }
+            if (DictInterface.status(nextPrefix) != 0) {
+                path[depth] = c;
+                cells[depth] = next;
+                searchSmall(next, nextPrefix, depth + 1, visited);
+            }
+        }
+    }
+
+    /**
+     * DFS for boards of more than 64 cells, using the visited bitset field.
+     *
+     * @param cell   The cell the path currently ends at.
+     * @param prefix The dictionary handle for the letters on the path.
+     * @param depth  The number of letters on the path.
+     */
+    private void searchLarge(int cell, long prefix, int depth) {
+        if (SolverMetrics.COUNT_NODES) {
+            nodeCount++;
+        }
+        if (quTiles && letters[cell] == 'q') {
+            prefix = stepQu(prefix, depth++);
+        }
+        int status = DictInterface.status(prefix);
+        if ((status & 2) != 0 && depth >= minLength && depth <= maxLength) {
+            foundWord(prefix, depth);
+        }
+        if ((status & 1) == 0 || depth >= maxLength || stopped) {
+            return;
+        }
+        if (!canGrow(prefix, depth)) {
+            lengthPruneCount++;
+            return;
+        }
+        visited[cell >>> 6] |= 1L << cell;
+        // Room for the next letter, and the u after it if it is a Qu tile
+        if (depth + 1 >= path.length) {
+            growPath();
+        }
+
+        for (int k = neighborStart[cell], end = neighborStart[cell + 1]; k < end; k++) {
+            int next = neighbors[k];
+            if ((visited[next >>> 6] & (1L << next)) != 0) {
+                continue;
+            }
+            char c = (char) letters[next];
+            long nextPrefix = dictionary.step(prefix, c);
+            if (SolverMetrics.COUNT_NODES) {
+                lookupCount[DictInterface.status(nextPrefix)]++;
+            }
+            if (DictInterface.status(nextPrefix) != 0) {
+                path[depth] = c;
+                cells[depth] = next;
+                searchLarge(next, nextPrefix, depth + 1);
+            }
+        }
+
+        // Backtrack: the cell is free again for other paths
+        visited[cell >>> 6] &= ~(1L << cell);
+    }
+
+    /**
+     * DFS for findWordPathsThrough, using the visited bitset field. Words are
+     * only reported once the path has passed through throughCell.
+     *
+     * @param cell    The cell the path currently ends at.
+     * @param prefix  The dictionary handle for the letters on the path.
+     * @param depth   The number of letters on the path.
+     * @param through True if throughCell is on the path.
+     */
+    private void searchThrough(int cell, long prefix, int depth, boolean through) {
+        if (SolverMetrics.COUNT_NODES) {
+            nodeCount++;
+        }
+        if (quTiles && letters[cell] == 'q') {
+            prefix = stepQu(prefix, depth++);
+        }
+        int status = DictInterface.status(prefix);
+        if (through && (status & 2) != 0 && depth >= minLength && depth <= maxLength) {
+            foundWord(prefix, depth);
+        }
+        if ((status & 1) == 0 || depth >= maxLength) {
+            return;
+        }
+        if (!canGrow(prefix, depth)) {
+            lengthPruneCount++;
+            return;
+        }
+        visited[cell >>> 6] |= 1L << cell;
+        if (depth + 1 >= path.length) {
+            growPath();
+        }
+
+        for (int k = neighborStart[cell], end = neighborStart[cell + 1]; k < end; k++) {
+            int next = neighbors[k];
+            if ((visited[next >>> 6] & (1L << next)) != 0) {
+                continue;
+            }
+            // Every cell takes at least one letter, so a path too far from
+            // throughCell can no longer reach it
+            boolean nextThrough = through || next == throughCell;
+            if (!nextThrough && distance(next, throughCell) > maxLength - depth - 1) {
+                continue;
+            }
+            char c = (char) letters[next];
+            long nextPrefix = dictionary.step(prefix, c);
+            if (SolverMetrics.COUNT_NODES) {
+                lookupCount[DictInterface.status(nextPrefix)]++;
+            }
+            if (DictInterface.status(nextPrefix) != 0) {
+                path[depth] = c;
+                cells[depth] = next;
+                searchThrough(next, nextPrefix, depth + 1, nextThrough);
+            }
+        }
+
+        visited[cell >>> 6] &= ~(1L << cell);
+    }
+
+    /**
+     * Checks the dictionary's bounds on how many more letters can follow a
+     * prefix against the lengths wanted. Each bound is only asked for when it
+     * can rule something out, as it costs a dictionary call.
+     *
+     * @param prefix The dictionary handle for the letters on the path.
+     * @param depth  The number of letters on the path.
+     * @return False if no word starting with the path has a wanted length.
+     */
+    private boolean canGrow(long prefix, int depth) {
+        if (depth < minLength && dictionary.maxRemaining(prefix) < minLength - depth) {
+            return false;
+        }
+        return !boundedMax || dictionary.minRemaining(prefix) <= maxLength - depth;
+    }
+
+    // The number of king moves between two cells
+    private int distance(int a, int b) {
+        return Math.max(Math.abs(a / cols - b / cols), Math.abs(a % cols - b % cols));
+    }
+
+    /**
+     * Adds the u of a Qu tile to the path.
+     *
+     * @param prefix The dictionary handle for the letters up to and including the q.
+     * @param depth  The index of the u in the path.
+     * @return The dictionary handle with the u added.
+     */
+    private long stepQu(long prefix, int depth) {
+        path[depth] = 'u';
+        cells[depth] = NO_CELL;
+        long withU = dictionary.step(prefix, 'u');
+        if (SolverMetrics.COUNT_NODES) {
+            lookupCount[DictInterface.status(withU)]++;
+        }
+        return withU;
+    }
+
+    private void growPath() {
+        path = Arrays.copyOf(path, path.length * 2);
+        cells = Arrays.copyOf(cells, cells.length * 2);
+    }
+
+    private void foundWord(long prefix, int length) {
+        if (stopAtFirst) {
+            wordCount++;
+            firstWord = new String(path, 0, length);
+            stopped = true;
+            return;
+        }
+
+        // Report each word only the first time it is found
+        int id = dictionary.wordId(prefix);
+        long bit = 1L << id;
+        if (sharedSeen != null) {
+            long old;
+            do {
+                old = sharedSeen.get(id >>> 6);
+                if ((old & bit) != 0) {
+                    return;
+                }
+            } while (!sharedSeen.compareAndSet(id >>> 6, old, old | bit));
+        } else {
+            if ((seen[id >>> 6] & bit) != 0) {
+                return;
+            }
+            seen[id >>> 6] |= bit;
+        }
+        report(length);
+    }
+
+    // Passes the word in the first length characters of the path buffer on
+    private void report(int length) {
+        wordCount++;
+        pathView.length = length;
+        if (wordConsumer != null) {
+            wordConsumer.accept(pathView);
+        }
+        if (wordPaths != null) {
+            wordPaths.put(pathView.toString(), tiles(length, cols));
+        }
+        if (wordCells != null) {
+            wordCells.put(pathView.toString(), pathCells(length));
+        }
+    }
+
+    // The cells holding the first length letters of the path
+    private int[] pathCells(int length) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (cells[i] != NO_CELL) {
+                count++;
+            }
+        }
+        int[] pathCells = new int[count];
+        count = 0;
+        for (int i = 0; i < length; i++) {
+            if (cells[i] != NO_CELL) {
+                pathCells[count++] = cells[i];
+            }
+        }
+        return pathCells;
+    }
+
+    // The tiles of the cells holding the first length letters of the path
+    private ArrayList<Tile> tiles(int length, int cols) {
+        ArrayList<Tile> tiles = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            if (cells[i] != NO_CELL) {
+                tiles.add(new Tile(cells[i] / cols, cells[i] % cols));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * A read-only CharSequence view of the first length characters of the path buffer.
+     */
+    private class PathView implements CharSequence {
+        int length;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+            }
+            return path[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(path, 0, length);
+        }
+    }
+}
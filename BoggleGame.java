@@ -1,10 +1,55 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Random;
+import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class BoggleGame implements BoggleGameInterface{
 
+    /** The fewest letters a word must have to count. */
+    public static final int MIN_WORD_LENGTH = 3;
+
+    // Pool to spread the start cells of word searches over, or null to search on the calling thread
+    private final ForkJoinPool pool;
+    // Where the letters of generated boards come from
+    private final BoardGenerator generator;
+
+    /**
+     * Creates a game that solves boards on the calling thread.
+     */
+    public BoggleGame() {
+        this(null);
+    }
+
+    /**
+     * Creates a game that finds words in parallel using the given pool. The
+     * dictionaries passed to it must not be changed while a search is running.
+     *
+     * @param pool The ForkJoinPool to find words in, or null to find them sequentially.
+     */
+    public BoggleGame(ForkJoinPool pool) {
+        this(pool, new UniformBoardGenerator());
+    }
+
+    /**
+     * Creates a game that generates boards with the given strategy. If the
+     * generator makes Qu tiles, the game treats every Q cell on the boards it
+     * is given as "qu" when finding and checking words.
+     *
+     * @param pool      The ForkJoinPool to find words in, or null to find them sequentially.
+     * @param generator The strategy for the letters of generated boards. Must not be null.
+     */
+    public BoggleGame(ForkJoinPool pool, BoardGenerator generator) {
+        this.pool = pool;
+        this.generator = generator;
+    }
+
     /**
  * Generates a Boggle board of the specified size.
  *
@@ -14,34 +59,53 @@ public class BoggleGame implements BoggleGameInterface{
  */
 @Override
 public char[][] generateBoggleBoard(int size) {
+    return generateBoggleBoard(size, new SplittableRandom());
+}
+
+/**
+ * Generates a Boggle board of the specified size from a seed. The same size and
+ * seed always give the same board, so a board can be reproduced from its seed.
+ *
+ * @param size The size of the Boggle board. Must be greater than 0.
+ * @param seed The seed for the random letters.
+ * @return A 2D array representing the Boggle board, filled with randomly generated characters.
+ *         Returns null if the input size is less than or equal to 0.
+ */
+@Override
+public char[][] generateBoggleBoard(int size, long seed) {
+    return generateBoggleBoard(size, new SplittableRandom(seed));
+}
+
+/**
+ * Private helper method for generateBoggleBoard.
+ *
+ * @param size   The size of the Boggle board.
+ * @param random The generator to draw the letters from.
+ * @return The generated Boggle board, or null if the size is invalid.
+ */
+private char[][] generateBoggleBoard(int size, SplittableRandom random) {
     // Check if the input size is valid
     if (size <= 0) {
         return null;
     }
 
-    // Calculate the total number of characters needed for the Boggle board
-    int stringLength = size * size;
-
-    // Check if the calculated string length is valid
-    if (stringLength <= 0) {
+    // Check if the total number of cells is valid
+    if (size * size <= 0) {
         return null;
     }
 
-    // Generate a random string of characters with the specified length
-    String s = generateRandomString(stringLength);
-
-    // Create a 2D array to represent the Boggle board
-    char[][] board = new char[size][size];
-
-    // Populate the Boggle board with characters from the generated string
-    for (int i = 0; i < size; i++) {
-        for (int j = 0; j < size; j++) {
-            board[i][j] = s.charAt(i * size + j);
-        }
-    }
+    // Let the generation strategy fill the board
+    return generator.generate(size, random);
+}
 
-    // Return the generated Boggle board
-    return board;
+/**
+ * Prepares a board for searching, with Qu tiles if this game's generator makes them.
+ *
+ * @param boggleBoard The 2D array representing the Boggle board.
+ * @return The prepared board.
+ */
+private PreparedBoard prepare(char[][] boggleBoard) {
+    return new PreparedBoard(boggleBoard, generator.hasQuTiles());
 }
 
 /**
@@ -57,199 +121,160 @@ public int countWords(char[][] boggleBoard, DictInterface dictionary) {
         return 0;
     }
 
-    // Set to store found words and ensure uniqueness
-    Set<String> foundWords = new HashSet<>();
-
-    int boardSize = boggleBoard.length;
+    // Each unique word is reported once, so the words only need to be counted, not stored
+    AtomicInteger count = new AtomicInteger();
+    findWords(boggleBoard, dictionary, MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH, word -> count.incrementAndGet());
+    return count.get();
+}
 
-    // Iterate through each cell in the Boggle board
-    for (int i = 0; i < boardSize; i++) {
-        for (int j = 0; j < boardSize; j++) {
-            // Set to keep track of visited positions during DFS
-            Set<Integer> visited = new HashSet<>();
-            // StringBuilder to build the current word during DFS
-            StringBuilder currentWord = new StringBuilder();
-            currentWord.append(Character.toLowerCase(boggleBoard[i][j]));
 
-            // Invoke helper method for DFS
-            countWordsHelper(boggleBoard, dictionary, i, j, currentWord, foundWords, visited);
-        }
+/**
+ * Counts the number of unique valid words on the Boggle board with a specified length
+ * using a given dictionary.
+ *
+ * @param boggleBoard The 2D array representing the Boggle board. Must not be null.
+ * @param dictionary  The dictionary to check against. Must not be null.
+ * @param length      The specified length of words to count.
+ * @return The count of unique valid words found on the Boggle board with the specified length.
+ */
+public int countWordsOfCertainLength(char[][] boggleBoard, DictInterface dictionary, int length) {
+    if (boggleBoard == null || dictionary == null || length <= 0) {
+        return 0;
     }
 
-    // Return the count of unique found words
-    return foundWords.size();
+    // Search from every cell, never going deeper than the specified length
+    AtomicInteger count = new AtomicInteger();
+    findWords(boggleBoard, dictionary, length, length, word -> count.incrementAndGet());
+    return count.get();
 }
 
 /**
- * Helper method for DFS to find valid words on the Boggle board.
+ * Counts the unique valid words of every length on the Boggle board in a single
+ * search, with the same deduplication as countWordsOfCertainLength.
  *
  * @param boggleBoard The 2D array representing the Boggle board.
  * @param dictionary  The dictionary to check against.
- * @param row         The current row index during DFS.
- * @param col         The current column index during DFS.
- * @param currentWord The current word being built during DFS.
- * @param foundWords  The set to store found words.
- * @param visited     The set to keep track of visited positions during DFS.
+ * @return An array where element L is the number of words of length L (three or more).
  */
-private void countWordsHelper(char[][] boggleBoard, DictInterface dictionary, int row, int col,
-                              StringBuilder currentWord, Set<String> foundWords, Set<Integer> visited) {
-    int res = dictionary.searchPrefix(currentWord);
-
-    if ((res == 2 || res == 3) && currentWord.length() >= 3) {
-        // Found a valid word, add it to the set
-        String word = currentWord.toString().toLowerCase();
-        if (!foundWords.contains(word)) {
-            foundWords.add(word);
-        }
-    }
-
-    if (res == 1 || res == 3) {
-        int boardSize = boggleBoard.length;
-        int position = row * boardSize + col;
+@Override
+public int[] countWordsByLength(char[][] boggleBoard, DictInterface dictionary) {
+    return countWordsByLength(boggleBoard, dictionary, MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH);
+}
 
-        // Explore neighboring positions in DFS
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                int newRow = row + i;
-                int newCol = col + j;
-                int newPosition = newRow * boardSize + newCol;
+/**
+ * Counts the unique valid words of every length between minLength and maxLength on the
+ * Boggle board in a single search. The search never goes deeper than maxLength.
+ *
+ * @param boggleBoard The 2D array representing the Boggle board.
+ * @param dictionary  The dictionary to check against.
+ * @param minLength   The shortest word length to count.
+ * @param maxLength   The longest word length to count, or BoardSolver.NO_MAX_LENGTH.
+ * @return An array where element L is the number of words of length L. It is long enough
+ *         for the longest word found (or for maxLength, if given and no longer than the
+ *         dictionary's longest word), and lengths outside the bounds are 0. Empty if the
+ *         board or dictionary is null or the bounds are empty.
+ */
+@Override
+public int[] countWordsByLength(char[][] boggleBoard, DictInterface dictionary, int minLength, int maxLength) {
+    minLength = Math.max(minLength, 1);
+    if (boggleBoard == null || dictionary == null || minLength > maxLength) {
+        return new int[0];
+    }
 
-                // Check if the neighboring position is valid and not visited
-                if ((i != 0 || j != 0) && isValid(newRow, newCol, boardSize) && !visited.contains(newPosition)) {
-                    char nextChar = Character.toLowerCase(boggleBoard[newRow][newCol]);
+    // No word is longer than the dictionary's longest, however large maxLength is
+    int longest = Math.min(maxLength, dictionary.maxWordLength());
+    LengthHistogram histogram = new LengthHistogram(maxLength == BoardSolver.NO_MAX_LENGTH ? 0 : longest + 1);
+    findWords(boggleBoard, dictionary, minLength, maxLength, histogram);
+    return histogram.counts;
+}
 
-                    // Mark the current position as visited
-                    visited.add(position);
+/**
+ * Counts the words passed to it by length. Synchronized because with a pool the
+ * words arrive from several threads; words are rare next to DFS steps, so the
+ * lock is almost never contended.
+ */
+private static class LengthHistogram implements Consumer<CharSequence> {
+    private int[] counts;
 
-                    // Recursively explore neighbors
-                    currentWord.append(nextChar);
-                    countWordsHelper(boggleBoard, dictionary, newRow, newCol, currentWord, foundWords, visited);
-                    currentWord.deleteCharAt(currentWord.length() - 1);
+    LengthHistogram(int size) {
+        counts = new int[size];
+    }
 
-                    // Backtrack: Mark the current position as not visited
-                    visited.remove(position);
-                }
-            }
+    @Override
+    public synchronized void accept(CharSequence word) {
+        int length = word.length();
+        if (length >= counts.length) {
+            counts = Arrays.copyOf(counts, length + 1);
         }
+        counts[length]++;
     }
 }
 
 /**
- * Checks if a position on the Boggle board is valid.
+ * Finds all unique valid words of length three or more on the Boggle board.
  *
- * @param row       The row index.
- * @param col       The column index.
- * @param boardSize The size of the Boggle board.
- * @return True if the position is valid, false otherwise.
+ * @param boggleBoard The 2D array representing the Boggle board.
+ * @param dictionary  The dictionary to check against.
+ * @return A set of the lowercase words found, empty if the board or dictionary is null.
  */
-private boolean isValid(int row, int col, int boardSize) {
-    return row >= 0 && row < boardSize && col >= 0 && col < boardSize;
+@Override
+public Set<String> findAllWords(char[][] boggleBoard, DictInterface dictionary) {
+    Set<String> foundWords = (pool != null) ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+    findAllWords(boggleBoard, dictionary, word -> foundWords.add(word.toString()));
+    return foundWords;
 }
 
-
 /**
- * Counts the number of unique valid words on the Boggle board with a specified length
- * using a given dictionary.
+ * Streams each unique valid word of length three or more on the Boggle board to a
+ * consumer as soon as it is found, without collecting the words.
  *
- * @param boggleBoard The 2D array representing the Boggle board. Must not be null.
- * @param dictionary  The dictionary to check against. Must not be null.
- * @param length      The specified length of words to count.
- * @return The count of unique valid words found on the Boggle board with the specified length.
+ * @param boggleBoard The 2D array representing the Boggle board.
+ * @param dictionary  The dictionary to check against.
+ * @param consumer    Receives each word once. The CharSequence is only valid during the call.
+ *                    With a pool it is called from several threads, so it must be thread-safe.
  */
-public int countWordsOfCertainLength(char[][] boggleBoard, DictInterface dictionary, int length) {
-    if (boggleBoard == null || dictionary == null || length <= 0) {
-        return 0;
-    }
-
-    // Set to store found words and ensure uniqueness
-    Set<String> foundWords = new HashSet<>();
-    int boardSize = boggleBoard.length;
-
-    // Iterate through each cell in the Boggle board
-    for (int i = 0; i < boardSize; i++) {
-        for (int j = 0; j < boardSize; j++) {
-            // Set to keep track of visited positions during DFS
-            Set<Integer> visitedPositions = new HashSet<>();
-            // StringBuilder to build the current word during DFS
-            StringBuilder currentWord = new StringBuilder();
-            currentWord.append(Character.toLowerCase(boggleBoard[i][j]));
-
-            // Invoke helper method for DFS
-            countWordsOfCertainLengthHelper(boggleBoard, dictionary, i, j, currentWord, length, foundWords, visitedPositions);
-        }
+@Override
+public void findAllWords(char[][] boggleBoard, DictInterface dictionary, Consumer<CharSequence> consumer) {
+    if (boggleBoard == null || dictionary == null) {
+        return;
     }
-
-    // Return the count of unique found words
-    return foundWords.size();
+    findWords(boggleBoard, dictionary, MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH, consumer);
 }
 
 /**
- * Helper method for DFS to find valid words on the Boggle board with a specified length.
+ * Finds all unique valid words of length three or more on the Boggle board, each
+ * with the tiles of one path that spells it.
  *
- * @param boggleBoard        The 2D array representing the Boggle board.
- * @param dictionary         The dictionary to check against.
- * @param row                The current row index during DFS.
- * @param col                The current column index during DFS.
- * @param currentWord        The current word being built during DFS.
- * @param targetLength       The specified length of words to count.
- * @param foundWords         The set to store found words.
- * @param visitedPositions   The set to keep track of visited positions during DFS.
+ * @param boggleBoard The 2D array representing the Boggle board.
+ * @param dictionary  The dictionary to check against.
+ * @return A map from each lowercase word found to its path, empty if the board or dictionary is null.
  */
-private void countWordsOfCertainLengthHelper(char[][] boggleBoard, DictInterface dictionary, int row, int col,
-                                             StringBuilder currentWord, int targetLength, Set<String> foundWords,
-                                             Set<Integer> visitedPositions) {
-    int res = dictionary.searchPrefix(currentWord);
-
-    if (currentWord.length() == targetLength && (res == 2 || res == 3)) {
-        // Found a valid word of the specified length
-        String word = currentWord.toString();
-        if (!foundWords.contains(word)) {
-            foundWords.add(word);
-            // System.out.println(word);
-        }
-    }
-
-    if (currentWord.length() < targetLength && (res == 1 || res == 3)) {
-        int boardSize = boggleBoard.length;
-        int position = row * boardSize + col;
-
-        // Mark the current position as visited
-        visitedPositions.add(position);
-
-        // Explore neighboring positions in DFS
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                int newRow = row + i;
-                int newCol = col + j;
-                int newPosition = newRow * boardSize + newCol;
-
-                // Check if the neighboring position is valid and not visited
-                if (isValid(newRow, newCol, boggleBoard) && !visitedPositions.contains(newPosition)) {
-                    char nextChar = Character.toLowerCase(boggleBoard[newRow][newCol]);
-
-                    // Recursively explore neighbors and update count
-                    currentWord.append(nextChar);
-                    countWordsOfCertainLengthHelper(boggleBoard, dictionary, newRow, newCol, currentWord, targetLength, foundWords, visitedPositions);
-                    currentWord.deleteCharAt(currentWord.length() - 1);
-                }
-            }
-        }
-
-        // Backtrack: Mark the current position as not visited
-        visitedPositions.remove(position);
+@Override
+public Map<String, ArrayList<Tile>> findAllWordPaths(char[][] boggleBoard, DictInterface dictionary) {
+    Map<String, ArrayList<Tile>> wordPaths = new HashMap<>();
+    if (boggleBoard != null && dictionary != null) {
+        BoardSolver.forCurrentThread().findWordPaths(prepare(boggleBoard), dictionary, MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH, wordPaths);
     }
+    return wordPaths;
 }
 
 /**
- * Checks if a position on the Boggle board is valid.
+ * Runs the solver over the whole board, in parallel if this game has a pool.
  *
- * @param row          The row index.
- * @param col          The column index.
- * @param boggleBoard  The 2D array representing the Boggle board.
- * @return True if the position is valid, false otherwise.
+ * @param boggleBoard The 2D array representing the Boggle board.
+ * @param dictionary  The dictionary to check against.
+ * @param minLength   The shortest word length to report.
+ * @param maxLength   The longest word length to report.
+ * @param consumer    Receives each unique word found.
  */
-private boolean isValid(int row, int col, char[][] boggleBoard) {
-    return row >= 0 && row < boggleBoard.length && col >= 0 && col < boggleBoard[row].length;
+private void findWords(char[][] boggleBoard, DictInterface dictionary, int minLength, int maxLength,
+                       Consumer<CharSequence> consumer) {
+    PreparedBoard board = prepare(boggleBoard);
+    if (pool != null) {
+        BoardSolver.findWordsParallel(board, dictionary, minLength, maxLength, pool, consumer);
+    } else {
+        BoardSolver.forCurrentThread().findWords(board, dictionary, minLength, maxLength, consumer);
+    }
 }
 
 
@@ -283,79 +308,26 @@ public boolean isWordInDictionary(DictInterface dictionary, String word) {
  * @return True if the word exists on the Boggle board, false otherwise.
  */
 public boolean isWordInBoard(char[][] boggleBoard, String word) {
-    int rowCount = boggleBoard.length;
-    int colCount = boggleBoard[0].length;
-
-    // Iterate over each cell in the board to start DFS
-    for (int i = 0; i < rowCount; i++) {
-        for (int j = 0; j < colCount; j++) {
-            // Create a new boolean array to track visited cells for each DFS search
-            boolean[][] visited = new boolean[rowCount][colCount];
-
-            // If the word is found starting from the current cell, return true
-            if (isWordInBoardDFS(boggleBoard, i, j, word.toUpperCase(), 0, visited)) {
-                return true;
-            }
-        }
-    }
-
-    // Return false if the word is not found on the Boggle board
-    return false;
+    return isWordInBoard(prepare(boggleBoard), word);
 }
 
-
 /**
- * Private helper method for isWordInBoard.
- * Performs DFS (Depth-First Search) to check if the given word can be formed
- * starting from a specific cell on the Boggle board.
+ * Checks if a given word exists on a prepared Boggle board. Preparing the
+ * board once and checking many words against it avoids redoing the neighbor
+ * tables and letter index for every word.
  *
- * @param board   The 2D array representing the Boggle board.
- *                Must not be null.
- * @param row     The current row index.
- * @param col     The current column index.
- * @param word    The word to check for existence on the Boggle board.
- * @param index   The current index in the word being checked.
- * @param visited A boolean array indicating visited cells.
- * @return True if the word can be formed starting from the current cell, false otherwise.
+ * @param board The prepared Boggle board. Must not be null.
+ * @param word  The word to check for existence on the Boggle board.
+ * @return True if the word exists on the Boggle board, false otherwise.
  */
-private boolean isWordInBoardDFS(char[][] board, int row, int col, String word, int index, boolean[][] visited) {
-    int rowCount = board.length;
-    int colCount = board[0].length;
-
-    // Check if the current position is within bounds and not visited
-    if (row < 0 || col < 0 || row >= rowCount || col >= colCount || visited[row][col]) {
-        return false;
-    }
-
-    // Check if the current character in the board matches the current character in the word
-    if (board[row][col] != word.charAt(index)) {
+@Override
+public boolean isWordInBoard(PreparedBoard board, String word) {
+    if (word == null) {
         return false;
     }
 
-    // Check if the entire word has been found
-    if (index == word.length() - 1) {
-        return true;
-    }
-
-    // Mark the current position as visited
-    visited[row][col] = true;
-
-    // Explore adjacent positions
-    if (isWordInBoardDFS(board, row - 1, col, word, index + 1, visited) ||
-        isWordInBoardDFS(board, row + 1, col, word, index + 1, visited) ||
-        isWordInBoardDFS(board, row, col - 1, word, index + 1, visited) ||
-        isWordInBoardDFS(board, row, col + 1, word, index + 1, visited) ||
-        isWordInBoardDFS(board, row - 1, col - 1, word, index + 1, visited) ||
-        isWordInBoardDFS(board, row - 1, col + 1, word, index + 1, visited) ||
-        isWordInBoardDFS(board, row + 1, col - 1, word, index + 1, visited) ||
-        isWordInBoardDFS(board, row + 1, col + 1, word, index + 1, visited)) {
-        return true;
-    }
-
-    // Backtrack: Mark the current position as not visited for other paths
-    visited[row][col] = false;
-
-    return false;
+    // One search, starting only from the cells that hold the first letter
+    return BoardSolver.forCurrentThread().containsWord(board, word);
 }
 
 
@@ -369,86 +341,12 @@ private boolean isWordInBoardDFS(char[][] board, int row, int col, String word,
  */
 @Override
 public String anyWord(char[][] boggleBoard, DictInterface dictionary) {
-    int rowCount = boggleBoard.length;
-    int colCount = boggleBoard[0].length;
-
-    // Iterate over each cell in the board to start DFS
-    for (int i = 0; i < rowCount; i++) {
-        for (int j = 0; j < colCount; j++) {
-            // Create a new boolean array to track visited cells for each DFS search
-            boolean[][] visited = new boolean[rowCount][colCount];
-
-            // Call the helper method for each cell
-            String word = anyWordDFS(boggleBoard, i, j, "", dictionary, visited);
-
-            // If a valid word is found, return it
-            if (word != null) {
-                return word;
-            }
-        }
-    }
-
-    // Return null if no valid word is found on the Boggle board
-    return null;
-}
-
-/**
- * Private helper method for anyWord.
- * Performs DFS (Depth-First Search) to find any valid word on the Boggle board
- * starting from a specific cell.
- *
- * @param board       The 2D array representing the Boggle board.
- *                    Must not be null.
- * @param row         The current row index.
- * @param col         The current column index.
- * @param currentWord The current word being built during the recursive exploration.
- * @param dictionary  The dictionary to check against. Must not be null.
- * @param visited     A boolean array indicating visited cells.
- * @return A valid word found starting from the current cell, or null if no valid word is found.
- */
-private String anyWordDFS(char[][] board, int row, int col, String currentWord,
-                        DictInterface dictionary, boolean[][] visited) {
-    int rowCount = board.length;
-    int colCount = board[0].length;
-
-    // Check if the current position is within bounds and not visited
-    if (row < 0 || col < 0 || row >= rowCount || col >= colCount || visited[row][col]) {
-        return null;
-    }
-
-    // Append the current character to the current word
-    currentWord += board[row][col];
-
-    // Check if the current word is a valid word or prefix
-    int status = dictionary.searchPrefix(new StringBuilder(currentWord.toLowerCase()));
-
-    // If it's a valid word of length three or more, return the word
-    if (status == 2 && currentWord.length() >= 3) {
-        return currentWord.toString(); // Convert StringBuilder to String
-    }
-
-    // If it's not a prefix, stop searching
-    if (status == 0) {
+    if (boggleBoard == null || dictionary == null) {
         return null;
     }
 
-    // Mark the current position as visited
-    visited[row][col] = true;
-
-    // Explore adjacent positions
-    String word = anyWordDFS(board, row - 1, col, currentWord, dictionary, visited);
-    if (word == null) word = anyWordDFS(board, row + 1, col, currentWord, dictionary, visited);
-    if (word == null) word = anyWordDFS(board, row, col - 1, currentWord, dictionary, visited);
-    if (word == null) word = anyWordDFS(board, row, col + 1, currentWord, dictionary, visited);
-    if (word == null) word = anyWordDFS(board, row - 1, col - 1, currentWord, dictionary, visited);
-    if (word == null) word = anyWordDFS(board, row - 1, col + 1, currentWord, dictionary, visited);
-    if (word == null) word = anyWordDFS(board, row + 1, col - 1, currentWord, dictionary, visited);
-    if (word == null) word = anyWordDFS(board, row + 1, col + 1, currentWord, dictionary, visited);
-
-    // Mark the current position as not visited for other paths
-    visited[row][col] = false;
-
-    return word;
+    // Return the first word of length three or more found, or null if there is none
+    return BoardSolver.forCurrentThread().findAnyWord(prepare(boggleBoard), dictionary, MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH);
 }
 
 
@@ -463,90 +361,25 @@ private String anyWordDFS(char[][] board, int row, int col, String currentWord,
  */
 @Override
 public ArrayList<Tile> markWordInBoard(char[][] boggleBoard, String word) {
-    int rowCount = boggleBoard.length;
-    int colCount = boggleBoard[0].length;
-
-    // Iterate over each cell in the board to start DFS
-    for (int i = 0; i < rowCount; i++) {
-        for (int j = 0; j < colCount; j++) {
-            // Create a new boolean array to track visited cells for each DFS search
-            boolean[][] visited = new boolean[rowCount][colCount];
-            // Create a new ArrayList to store the path of the word
-            ArrayList<Tile> path = new ArrayList<>();
-            // If the word is found starting from the current cell, return the path
-            if (markWordInBoardDFS(boggleBoard, i, j, word.toUpperCase(), 0, visited, path)) {
-                return path;
-            }
-        }
-    }
-
-    // Return null if the word is not found on the Boggle board
-    return null;
+    return markWordInBoard(prepare(boggleBoard), word);
 }
 
 /**
- * Private helper method for markWordInBoard.
- * Performs DFS (Depth-First Search) to mark the path of the given word on the Boggle board
- * starting from a specific cell.
+ * Marks the path of a given word on a prepared Boggle board, if the word exists.
  *
- * @param board       The 2D array representing the Boggle board.
- *                    Must not be null.
- * @param row         The current row index.
- * @param col         The current column index.
- * @param word        The word to mark on the Boggle board.
- * @param index       The current index in the word being checked.
- * @param visited     A boolean array indicating visited cells.
- * @param path        An ArrayList representing the path of the word on the Boggle board.
- * @return True if the word can be marked starting from the current cell, false otherwise.
+ * @param board The prepared Boggle board. Must not be null.
+ * @param word  The word to mark on the Boggle board.
+ * @return An ArrayList of Tile objects representing the path of the word on the Boggle board,
+ *         or null if the word does not exist.
  */
-
-private boolean markWordInBoardDFS(char[][] board, int row, int col, String word, int index,
-                                boolean[][] visited, ArrayList<Tile> path) {
-    int rowCount = board.length;
-    int colCount = board[0].length;
-
-    // Check if the current position is within bounds and not visited
-    if (row < 0 || col < 0 || row >= rowCount || col >= colCount || visited[row][col]) {
-        return false;
-    }
-
-    // Check if the current character in the board matches the current character in the word
-    if (board[row][col] != word.charAt(index)) {
-        return false;
-    }
-
-    // Check if the entire word has been found
-    if (index == word.length() - 1) {
-        // Add the current tile to the path
-        path.add(new Tile(row, col));
-        return true;
-    }
-
-    // Mark the current position as visited
-    visited[row][col] = true;
-
-    // Add the current tile to the path
-    path.add(new Tile(row, col));
-
-    // Explore adjacent positions
-    if (markWordInBoardDFS(board, row - 1, col, word, index + 1, visited, path) ||
-        markWordInBoardDFS(board, row + 1, col, word, index + 1, visited, path) ||
-        markWordInBoardDFS(board, row, col - 1, word, index + 1, visited, path) ||
-        markWordInBoardDFS(board, row, col + 1, word, index + 1, visited, path) ||
-        markWordInBoardDFS(board, row - 1, col - 1, word, index + 1, visited, path) ||
-        markWordInBoardDFS(board, row - 1, col + 1, word, index + 1, visited, path) ||
-        markWordInBoardDFS(board, row + 1, col - 1, word, index + 1, visited, path) ||
-        markWordInBoardDFS(board, row + 1, col + 1, word, index + 1, visited, path)) {
-        return true;
+@Override
+public ArrayList<Tile> markWordInBoard(PreparedBoard board, String word) {
+    if (word == null) {
+        return null;
     }
 
-    // Mark the current position as not visited for other paths
-    visited[row][col] = false;
-
-    // Remove the last tile from the path as it doesn't lead to a valid solution
-    path.remove(path.size() - 1);
-
-    return false;
+    // The path comes from the same single search that checks the word
+    return BoardSolver.forCurrentThread().findPath(board, word);
 }
 
     
@@ -563,7 +396,7 @@ private boolean markWordInBoardDFS(char[][] board, int row, int col, String word
  */
 @Override
 public boolean checkTiles(char[][] boggleBoard, ArrayList<Tile> tiles, String word) {
-    if (tiles == null || tiles.isEmpty() || word.length() < 3) {
+    if (tiles == null || tiles.isEmpty() || word.length() < MIN_WORD_LENGTH) {
         // Empty list, cannot form a valid path or word is less than three letters
         return false;
     }
@@ -571,15 +404,25 @@ public boolean checkTiles(char[][] boggleBoard, ArrayList<Tile> tiles, String wo
     int rowCount = boggleBoard.length;
     int colCount = boggleBoard[0].length;
 
+    // Index in the word of the letter on the current tile; a Qu tile covers two letters
+    int letter = 0;
+
     // Iterate through the list of tiles
     for (int i = 0; i < tiles.size(); i++) {
         Tile currentTile = tiles.get(i);
-        
+        char tileLetter = Character.toLowerCase(boggleBoard[currentTile.row][currentTile.col]);
+
         // Check if the letter on the current tile matches the corresponding letter in the word
-        if (i < word.length() && Character.toLowerCase(boggleBoard[currentTile.row][currentTile.col]) !=
-        Character.toLowerCase(word.charAt(i))) {
+        if (letter < word.length() && tileLetter != Character.toLowerCase(word.charAt(letter))) {
             return false;
         }
+        letter++;
+        if (tileLetter == 'q' && generator.hasQuTiles()) {
+            if (letter < word.length() && Character.toLowerCase(word.charAt(letter)) != 'u') {
+                return false;
+            }
+            letter++;
+        }
 
         if (i > 0) {
             Tile prevTile = tiles.get(i - 1);
@@ -629,118 +472,14 @@ private boolean areTilesAdjacent(Tile tile1, Tile tile2, int rowCount, int colCo
  */
 @Override
 public String anyWord(char[][] boggleBoard, DictInterface dictionary, int length) {
-    int rowCount = boggleBoard.length;
-    int colCount = boggleBoard[0].length;
-    length = length -1;
-    // Iterate over each cell in the board to start DFS
-    for (int i = 0; i < rowCount; i++) {
-        for (int j = 0; j < colCount; j++) {
-            // Create a new boolean array to track visited cells for each DFS search
-            boolean[][] visited = new boolean[rowCount][colCount];
-            // Create a StringBuilder to build the current word during DFS
-            StringBuilder currentWord = new StringBuilder();
-            // Find and return any valid word with the specified length starting from the current cell
-            String word = anyWordDFS(boggleBoard, i, j, currentWord, dictionary, visited, length);
-            if (word != null) {
-                return word;
-            }
-        }
-    }
-
-    // Return null if no valid word of the specified length is found on the Boggle board
-    return null;
-}
-
-/**
- * Private helper method for anyWord.
- * Performs DFS (Depth-First Search) to find any valid word on the Boggle board
- * with a specified length starting from a specific cell.
- *
- * @param board       The 2D array representing the Boggle board.
- *                    Must not be null.
- * @param row         The current row index.
- * @param col         The current column index.
- * @param currentWord The current word being built during the recursive exploration.
- * @param dictionary  The dictionary to check against. Must not be null.
- * @param visited     A boolean array indicating visited cells.
- * @param length      The specified length of the word to find.
- * @return A valid word found on the Boggle board with the specified length starting from the current cell,
- *         or null if no such word is found.
- */
-private String anyWordDFS(char[][] board, int row, int col, StringBuilder currentWord,
-                        DictInterface dictionary, boolean[][] visited, int length) {
-    int rowCount = board.length;
-    int colCount = board[0].length;
-    // Check if the current position is within bounds and not visited
-    if (row < 0 || col < 0 || row >= rowCount || col >= colCount || visited[row][col]) {
-        return null;
-    }
-
-    // Check the length of the current word once
-    int currentWordLength = currentWord.length();
-
-    // Append the current character to the current word
-    currentWord.append(Character.toLowerCase(board[row][col]));
-    
-    // Check if the current word is a valid word or prefix
-    int status = dictionary.searchPrefix(currentWord);
-
-    // If it's a valid word of the specified length, return the word
-    if (status == 2 && currentWordLength == length) {
-        
-        return currentWord.toString();
-    }
-
-    // If it's not a prefix or the length is not equal to the specified length, stop searching
-    if (status == 0 || currentWordLength > length) {
-        // Remove the last character from the current word for backtracking
-        currentWord.setLength(currentWordLength);
+    if (boggleBoard == null || dictionary == null || length <= 0) {
         return null;
     }
 
-    // Mark the current position as visited
-    visited[row][col] = true;
-
-    // Explore adjacent positions
-    String word = anyWordDFS(board, row - 1, col, currentWord, dictionary, visited, length);
-    if (word == null) word = anyWordDFS(board, row + 1, col, currentWord, dictionary, visited, length);
-    if (word == null) word = anyWordDFS(board, row, col - 1, currentWord, dictionary, visited, length);
-    if (word == null) word = anyWordDFS(board, row, col + 1, currentWord, dictionary, visited, length);
-    if (word == null) word = anyWordDFS(board, row - 1, col - 1, currentWord, dictionary, visited, length);
-    if (word == null) word = anyWordDFS(board, row - 1, col + 1, currentWord, dictionary, visited, length);
-    if (word == null) word = anyWordDFS(board, row + 1, col - 1, currentWord, dictionary, visited, length);
-    if (word == null) word = anyWordDFS(board, row + 1, col + 1, currentWord, dictionary, visited, length);
-
-    // Mark the current position as not visited for other paths
-    visited[row][col] = false;
-
-    // Remove the last character from the current word for backtracking
-    currentWord.setLength(currentWordLength);
-
-    return word;
+    // Return the first word of exactly the specified length found, or null if there is none
+    return BoardSolver.forCurrentThread().findAnyWord(prepare(boggleBoard), dictionary, length, length);
 }
 
 
-    /**
- * Generates a random string of the specified length consisting of uppercase letters.
- *
- * @param length The desired length of the random string.
- * @return A randomly generated string of uppercase letters.
- */
-
-    private String generateRandomString(int length) {
-        int leftLimit = 97; // letter 'a'
-        int rightLimit = 122; // letter 'z'
-        int targetStringLength = length;
-        Random random = new Random();
-
-        String generatedString = random.ints(leftLimit, rightLimit + 1)
-                .limit(targetStringLength)
-                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
-                .toString().toUpperCase();
-
-        // System.out.println(generatedString);
-        return generatedString;
-    }
     
 }
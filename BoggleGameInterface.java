@@ -1,4 +1,7 @@
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BoggleGameInterface {
 
@@ -10,6 +13,16 @@ public interface BoggleGameInterface {
      */
     public char[][] generateBoggleBoard(int size);
 
+    /**
+     * Generate and return a Boggle board of a given dimension from a seed. The
+     * same size and seed always give the same board
+     * @param size the dimension size of the board
+     * @param seed the seed for the random letters
+     * @return a Boggle board as a 2-d array of characters or null if size <= 0
+     *         or size is too big
+     */
+    public char[][] generateBoggleBoard(int size, long seed);
+
     /**
      * Returns the total number of words of length three or more found in the 
      * board following the rules of the Boggle Game
@@ -29,6 +42,56 @@ public interface BoggleGameInterface {
      */
     public int countWordsOfCertainLength(char[][] boggleBoard, DictInterface dictionary, int wordLength);
 
+    /**
+     * Counts the words of every length three or more found in the board in a
+     * single pass, following the rules of the Boggle Game
+     * @param boggleBoard the 2-d character array representing the Boggle board
+     * @param dictionary the DictInterface dictionary
+     * @return an array whose element at index L is the number of words of 
+     * length L found in the board
+     */
+    public int[] countWordsByLength(char[][] boggleBoard, DictInterface dictionary);
+
+    /**
+     * Counts the words of every length from minLength to maxLength found in 
+     * the board in a single pass, following the rules of the Boggle Game
+     * @param boggleBoard the 2-d character array representing the Boggle board
+     * @param dictionary the DictInterface dictionary
+     * @param minLength the shortest word length to count
+     * @param maxLength the longest word length to count
+     * @return an array whose element at index L is the number of words of 
+     * length L found in the board, 0 for lengths outside the bounds
+     */
+    public int[] countWordsByLength(char[][] boggleBoard, DictInterface dictionary, int minLength, int maxLength);
+
+    /**
+     * Returns all the words of length three or more found in the board
+     * following the rules of the Boggle Game
+     * @param boggleBoard the 2-d character array representing the Boggle board
+     * @param dictionary the DictInterface dictionary
+     * @return a set of the words found in the board
+     */
+    public Set<String> findAllWords(char[][] boggleBoard, DictInterface dictionary);
+
+    /**
+     * Passes each word of length three or more found in the board to a 
+     * consumer as soon as it is found, without keeping the words
+     * @param boggleBoard the 2-d character array representing the Boggle board
+     * @param dictionary the DictInterface dictionary
+     * @param consumer called once for each different word found; the 
+     * CharSequence is only valid during the call
+     */
+    public void findAllWords(char[][] boggleBoard, DictInterface dictionary, Consumer<CharSequence> consumer);
+
+    /**
+     * Returns all the words of length three or more found in the board, each
+     * with a list of board tiles where the word is found
+     * @param boggleBoard the 2-d character array representing the Boggle board
+     * @param dictionary the DictInterface dictionary
+     * @return a map from each word found to an ArrayList of its board tiles
+     */
+    public Map<String, ArrayList<Tile>> findAllWordPaths(char[][] boggleBoard, DictInterface dictionary);
+
     /**
      * Checks if a given word is in a given dictionary
      * @param dictionary the DictInterface dictionary
@@ -46,6 +109,15 @@ public interface BoggleGameInterface {
      */
     public boolean isWordInBoard(char[][] boggleBoard, String word);
 
+    /**
+     * Checks if a given word can be found in a prepared Boggle board. Use this
+     * when checking many words against the same board
+     * @param board the prepared Boggle board
+     * @param word the String word to check
+     * @return true if word can be found in board and false otherwise
+     */
+    public boolean isWordInBoard(PreparedBoard board, String word);
+
     /**
      * Finds a word of length three or more from a given dictionary in a given 
      * Boggle board
@@ -78,6 +150,17 @@ public interface BoggleGameInterface {
      */
     public ArrayList<Tile> markWordInBoard(char[][] boggleBoard, String word);
 
+    /**
+     * Finds a given word in a prepared Boggle board and returns a list of board
+     * tiles where the word is found. Use this when checking many words against
+     * the same board
+     * @param board the prepared Boggle board
+     * @param word the String word to find
+     * @return an ArrayList of board tiles where the word is found or null if the
+     * word cannot be found in the board
+     */
+    public ArrayList<Tile> markWordInBoard(PreparedBoard board, String word);
+
     /**
      * Checks a list of board tiles to see if they are adjacent (according to
      * the rules of the Boggle Game) and that they have the letters of a given 
@@ -0,0 +1,469 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves many Boggle games at once over HTTP, as a headless alternative to
+ * the console menu in Main. Every game has its own board, and all games share
+ * one dictionary, which is replaced as a whole rather than changed while the
+ * server runs.
+ *
+ * The operations are those of the menu, as plain-text requests:
+ *
+ *   POST   /games?size=N[&seed=S]       new game; answers its id, then the board
+ *   GET    /games/{id}                  the board, one row per line
+ *   GET    /games/{id}/count[?length=L] number of words, or of words of length L
+ *   GET    /games/{id}/check?word=W     whether W is in the dictionary and on the board
+ *   GET    /games/{id}/path?word=W      the tiles spelling W, as "row,col" pairs
+ *   DELETE /games/{id}                  ends the game
+ *   GET    /dictionary                  the dictionary's version and number of words
+ *   POST   /dictionary                  reloads the dictionary in the background
+ *   GET    /stats                       games, requests, throughput, latency percentiles
+ *                                       and solver search counts
+ *
+ * Each request is handled on its own thread: a virtual thread when the JVM
+ * has them (Java 21 and later), so thousands of games can wait on the
+ * network at once, and otherwise a thread from a cached pool. A game's board
+ * never changes once it is generated, so requests about the same game run
+ * in parallel without locking.
+ *
+ * To keep any one client from using up the server's memory, boards are at
+ * most MAX_BOARD_SIZE on a side, words at most MAX_WORD_LENGTH letters, and
+ * at most MAX_GAMES games are kept. A game that gets no request for
+ * IDLE_TIMEOUT_NANOS is ended as if it had been deleted.
+ *
+ * The dictionary is held in a DictionaryRegistry. A reload builds the new
+ * dictionary on the registry's loader thread while requests go on using the
+ * old one, and each request leases the dictionary it started with, so a
+ * reload never holds a request up.
+ *
+ * Run it as a program to serve a dictionary file:
+ *
+ *   java BoggleServer dictionary [port]
+ */
+public class BoggleServer {
+    /** The port used when none is given. */
+    public static final int DEFAULT_PORT = 8080;
+
+    /** The largest board dimension a game may ask for. */
+    public static final int MAX_BOARD_SIZE = 16;
+
+    /** The most games kept at once; new games are refused beyond it. */
+    public static final int MAX_GAMES = 10_000;
+
+    /** The longest word a check or path request may ask about. */
+    public static final int MAX_WORD_LENGTH = 64;
+
+    /** How long a game may go without a request before it is ended. */
+    public static final long IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(30);
+
+    // Connections the OS may queue while every handler is busy
+    private static final int BACKLOG = 1024;
+    // How often new games look for idle ones to end
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final DictionaryRegistry dictionaries;
+    private final BoardGenerator generator;
+    private final BoggleGameInterface game;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLong requests = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile long startNanos;
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * Creates a server for uniformly generated boards. Call start() to begin serving.
+     *
+     * @param dictionary The dictionary every game is played with. Must not be null.
+     * @param port       The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public BoggleServer(DictInterface dictionary, int port) throws IOException {
+        this(dictionary, new UniformBoardGenerator(), port);
+    }
+
+    /**
+     * Creates a server. Call start() to begin serving.
+     *
+     * @param dictionary The dictionary every game is played with. Must not be null.
+     * @param generator  The strategy for the letters of new boards. Must not be null.
+     * @param port       The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public BoggleServer(DictInterface dictionary, BoardGenerator generator, int port) throws IOException {
+        this(new DictionaryRegistry(dictionary), generator, port);
+    }
+
+    /**
+     * Creates a server whose dictionary can be replaced while it runs. Call
+     * start() to begin serving.
+     *
+     * @param dictionaries The registry holding the dictionary games are played with. Must not be null.
+     * @param generator    The strategy for the letters of new boards. Must not be null.
+     * @param port         The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public BoggleServer(DictionaryRegistry dictionaries, BoardGenerator generator, int port) throws IOException {
+        this.dictionaries = dictionaries;
+        this.generator = generator;
+        this.game = new BoggleGame(null, generator);
+        // The headers and body of a response go out in separate writes; without
+        // TCP_NODELAY the body waits for the client's delayed ACK, about 40 ms.
+        // The JDK server reads this property once, when the first server is made.
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * @return An executor that runs every task on a new virtual thread if the
+     *         JVM supports them, or on a cached pool of platform threads otherwise.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Starts serving requests in the background.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits up to a second for the ones in
+     * progress, and ends every game.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sessions.clear();
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return The number of games in progress.
+     */
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return The time each request took to handle, from when it was read to
+     *         when its answer was written.
+     */
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                             query(exchange.getRequestURI().getRawQuery()));
+        } catch (IllegalArgumentException e) {
+            response = new Response(400, e.getMessage());
+        } catch (RuntimeException e) {
+            response = new Response(500, e.toString());
+        }
+
+        byte[] body = (response.body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        requests.incrementAndGet();
+        latency.record(System.nanoTime() - start);
+    }
+
+    private Response route(String method, String path, Map<String, String> query) {
+        String[] parts = path.split("/");
+        // parts[0] is the empty string before the leading slash
+        if (parts.length == 2 && parts[1].equals("stats")) {
+            return method.equals("GET") ? stats() : notAllowed(method);
+        }
+        if (parts.length == 2 && parts[1].equals("dictionary")) {
+            if (method.equals("GET")) {
+                return dictionaryInfo();
+            } else if (method.equals("POST")) {
+                return reloadDictionary();
+            }
+            return notAllowed(method);
+        }
+        if (parts.length < 2 || !parts[1].equals("games")) {
+            return new Response(404, "No such resource: " + path);
+        }
+        if (parts.length == 2) {
+            return method.equals("POST") ? newGame(query) : notAllowed(method);
+        }
+
+        Long id = parseId(parts[2]);
+        Session session = id == null ? null : sessions.get(id);
+        if (session == null) {
+            return new Response(404, "No such game: " + parts[2]);
+        }
+        session.lastUsedNanos = System.nanoTime();
+        if (parts.length == 3) {
+            if (method.equals("GET")) {
+                return new Response(200, session.boardText());
+            } else if (method.equals("DELETE")) {
+                sessions.remove(id);
+                return new Response(200, "Game " + id + " ended");
+            }
+            return notAllowed(method);
+        }
+        if (parts.length != 4) {
+            return new Response(404, "No such resource: " + path);
+        }
+        if (!method.equals("GET")) {
+            return notAllowed(method);
+        }
+        switch (parts[3]) {
+            case "count":
+                return count(session, query);
+            case "check":
+                return check(session, query);
+            case "path":
+                return path(session, query);
+            default:
+                return new Response(404, "No such resource: " + path);
+        }
+    }
+
+    private Response newGame(Map<String, String> query) {
+        int size = intParameter(query, "size");
+        if (size > MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Board size " + size + " is over the maximum of " + MAX_BOARD_SIZE);
+        }
+        endIdleGames();
+        if (sessions.size() >= MAX_GAMES) {
+            return new Response(503, "Too many games in progress; end one first");
+        }
+        char[][] board = query.containsKey("seed")
+                ? game.generateBoggleBoard(size, Long.parseLong(query.get("seed")))
+                : game.generateBoggleBoard(size);
+        if (board == null) {
+            throw new IllegalArgumentException("Cannot make a board of size " + size);
+        }
+        long id = nextId.getAndIncrement();
+        Session session = new Session(board, new PreparedBoard(board, generator.hasQuTiles()));
+        sessions.put(id, session);
+        return new Response(201, id + "\n" + session.boardText());
+    }
+
+    // Ends the games nobody has asked about for IDLE_TIMEOUT_NANOS, at most
+    // once every SWEEP_INTERVAL_NANOS, so abandoned games do not pile up
+    private void endIdleGames() {
+        long now = System.nanoTime();
+        long last = lastSweepNanos.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweepNanos.compareAndSet(last, now)) {
+            return;
+        }
+        sessions.values().removeIf(session -> now - session.lastUsedNanos > IDLE_TIMEOUT_NANOS);
+    }
+
+    private Response count(Session session, Map<String, String> query) {
+        try (DictionaryRegistry.Lease lease = dictionaries.acquire()) {
+            if (query.containsKey("length")) {
+                return new Response(200, Integer.toString(game.countWordsOfCertainLength(
+                        session.board, lease.dictionary(), intParameter(query, "length"))));
+            }
+            return new Response(200, Integer.toString(game.countWords(session.board, lease.dictionary())));
+        }
+    }
+
+    private Response check(Session session, Map<String, String> query) {
+        String word = wordParameter(query);
+        try (DictionaryRegistry.Lease lease = dictionaries.acquire()) {
+            // Dictionaries hold lowercase words, while boards are shown in uppercase
+            return new Response(200, "dictionary="
+                    + game.isWordInDictionary(lease.dictionary(), word.toLowerCase(Locale.ROOT))
+                    + "\nboard=" + game.isWordInBoard(session.prepared, word));
+        }
+    }
+
+    private Response path(Session session, Map<String, String> query) {
+        String word = wordParameter(query);
+        ArrayList<Tile> tiles = game.markWordInBoard(session.prepared, word);
+        if (tiles == null) {
+            return new Response(404, word + " is not on the board");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Tile tile : tiles) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(tile.row).append(',').append(tile.col);
+        }
+        return new Response(200, sb.toString());
+    }
+
+    private Response dictionaryInfo() {
+        try (DictionaryRegistry.Lease lease = dictionaries.acquire()) {
+            return new Response(200, "version=" + lease.version() + "\nwords=" + lease.dictionary().size());
+        }
+    }
+
+    private Response reloadDictionary() {
+        if (!dictionaries.canReload()) {
+            return new Response(409, "The dictionary has no source to reload from");
+        }
+        dictionaries.reload().whenComplete((version, e) -> {
+            if (e != null) {
+                System.err.println("Dictionary reload failed: " + e.getCause());
+            }
+        });
+        return new Response(202, "Reloading the dictionary");
+    }
+
+    private Response stats() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long handled = requests.get();
+        return new Response(200, "games=" + sessions.size()
+                + "\nrequests=" + handled
+                + "\nthroughput=" + String.format("%.1f", handled / seconds) + " requests/s"
+                + "\np50=" + latency.percentile(50) + " us"
+                + "\np99=" + latency.percentile(99) + " us"
+                + "\np999=" + latency.percentile(99.9) + " us"
+                + "\ndictionaryVersion=" + dictionaries.version()
+                + "\nsearches=" + SolverMetrics.get().getSearches()
+                + "\nlongestSearch=" + SolverMetrics.get().getLongestSearchMicros() + " us");
+    }
+
+    private static Response notAllowed(String method) {
+        return new Response(405, "Method not allowed: " + method);
+    }
+
+    private static Long parseId(String text) {
+        try {
+            return Long.valueOf(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int intParameter(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " is not a number: " + value);
+        }
+    }
+
+    private static String wordParameter(Map<String, String> query) {
+        String word = query.get("word");
+        if (word == null || word.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: word");
+        }
+        if (word.length() > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word is over the maximum length of " + MAX_WORD_LENGTH);
+        }
+        return word;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                          URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    /**
+     * One game: its board, the board prepared once for word checks, and when
+     * it was last asked about.
+     */
+    private static class Session {
+        final char[][] board;
+        final PreparedBoard prepared;
+        volatile long lastUsedNanos = System.nanoTime();
+
+        Session(char[][] board, PreparedBoard prepared) {
+            this.board = board;
+            this.prepared = prepared;
+        }
+
+        String boardText() {
+            StringBuilder sb = new StringBuilder();
+            for (char[] row : board) {
+                if (sb.length() > 0) {
+                    sb.append('\n');
+                }
+                sb.append(row);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: java BoggleServer dictionary [port]");
+            return;
+        }
+        DictionaryRegistry dictionaries = DictionaryRegistry.forFile(Paths.get(args[0]));
+        int port = args.length == 2 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        SolverMetrics.registerMBean();
+        BoggleServer server = new BoggleServer(dictionaries, new UniformBoardGenerator(), port);
+        server.start();
+        System.out.println("Serving " + dictionaries.current().size() + " words on port " + server.port());
+    }
+}
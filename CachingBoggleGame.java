@@ -0,0 +1,338 @@
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A BoggleGameInterface that remembers the words found on recently solved
+ * boards. The first query about a board solves it once through the wrapped
+ * game; later word counts, length counts, anyWord and findAllWords queries
+ * about the same board and dictionary are answered from the cached word set
+ * and length histogram without searching again.
+ *
+ * Boards are identified by their letters (ignoring case), so a board that is
+ * changed after a query simply stops matching its old entry. Dictionaries are
+ * identified by object identity: a dictionary must not be changed while
+ * entries for it are cached, or clear() must be called after changing it.
+ * The cache does not keep a dictionary alive; once one that is no longer
+ * used, such as a dictionary replaced by a DictionaryRegistry reload, has
+ * been garbage collected, its entries are dropped on the next miss.
+ * At most capacity boards are kept, and the least recently used one is
+ * dropped first.
+ *
+ * Queries about words shorter than BoggleGame.MIN_WORD_LENGTH are not cached
+ * and go straight to the wrapped game, as do the queries that do not depend
+ * on the solved board (isWordInDictionary, isWordInBoard, markWordInBoard,
+ * checkTiles and generateBoggleBoard). The cache is safe to use from several
+ * threads; two threads missing on the same board at once may both solve it.
+ */
+public class CachingBoggleGame implements BoggleGameInterface {
+    private final BoggleGameInterface game;
+    private final int capacity;
+    private final LinkedHashMap<BoardKey, SolvedBoard> cache;
+    // Receives the keys' dictionary references once the dictionaries are collected
+    private final ReferenceQueue<DictInterface> collected = new ReferenceQueue<>();
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache in front of a game.
+     *
+     * @param game     The game that solves boards on a cache miss. Must not be null.
+     * @param capacity The most boards to keep. Must be greater than 0.
+     */
+    public CachingBoggleGame(BoggleGameInterface game, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0: " + capacity);
+        }
+        this.game = game;
+        this.capacity = capacity;
+        // Access order makes the first entry the least recently used one
+        this.cache = new LinkedHashMap<BoardKey, SolvedBoard>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BoardKey, SolvedBoard> eldest) {
+                return size() > CachingBoggleGame.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * @return The number of queries answered from the cache.
+     */
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    /**
+     * @return The number of queries that had to solve their board.
+     */
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    /**
+     * @return The number of boards currently cached.
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Drops every cached board. The hit and miss counts are kept.
+     */
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public char[][] generateBoggleBoard(int size) {
+        return game.generateBoggleBoard(size);
+    }
+
+    @Override
+    public char[][] generateBoggleBoard(int size, long seed) {
+        return game.generateBoggleBoard(size, seed);
+    }
+
+    @Override
+    public int countWords(char[][] boggleBoard, DictInterface dictionary) {
+        if (boggleBoard == null || dictionary == null) {
+            return game.countWords(boggleBoard, dictionary);
+        }
+        return solved(boggleBoard, dictionary).words.size();
+    }
+
+    @Override
+    public int countWordsOfCertainLength(char[][] boggleBoard, DictInterface dictionary, int length) {
+        if (boggleBoard == null || dictionary == null || length < BoggleGame.MIN_WORD_LENGTH) {
+            return game.countWordsOfCertainLength(boggleBoard, dictionary, length);
+        }
+        int[] counts = solved(boggleBoard, dictionary).counts;
+        return length < counts.length ? counts[length] : 0;
+    }
+
+    @Override
+    public int[] countWordsByLength(char[][] boggleBoard, DictInterface dictionary) {
+        return countWordsByLength(boggleBoard, dictionary, BoggleGame.MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH);
+    }
+
+    @Override
+    public int[] countWordsByLength(char[][] boggleBoard, DictInterface dictionary, int minLength, int maxLength) {
+        if (boggleBoard == null || dictionary == null || minLength < BoggleGame.MIN_WORD_LENGTH || minLength > maxLength) {
+            return game.countWordsByLength(boggleBoard, dictionary, minLength, maxLength);
+        }
+
+        // Same shape as an uncached result: long enough for maxLength if given
+        // (but no longer than the dictionary's longest word), otherwise for the
+        // longest word counted
+        int[] counts = solved(boggleBoard, dictionary).counts;
+        int size;
+        if (maxLength != BoardSolver.NO_MAX_LENGTH) {
+            size = Math.min(maxLength, dictionary.maxWordLength()) + 1;
+        } else {
+            size = counts.length;
+            while (size > minLength && counts[size - 1] == 0) {
+                size--;
+            }
+            if (size <= minLength) {
+                size = 0;
+            }
+        }
+        int[] result = new int[size];
+        for (int length = minLength; length < Math.min(size, counts.length); length++) {
+            result[length] = counts[length];
+        }
+        return result;
+    }
+
+    /**
+     * Finds all unique valid words of length three or more on the Boggle board.
+     *
+     * @param boggleBoard The 2D array representing the Boggle board.
+     * @param dictionary  The dictionary to check against.
+     * @return A read-only set of the lowercase words found, shared with the cache.
+     */
+    @Override
+    public Set<String> findAllWords(char[][] boggleBoard, DictInterface dictionary) {
+        if (boggleBoard == null || dictionary == null) {
+            return game.findAllWords(boggleBoard, dictionary);
+        }
+        return solved(boggleBoard, dictionary).words;
+    }
+
+    @Override
+    public void findAllWords(char[][] boggleBoard, DictInterface dictionary, Consumer<CharSequence> consumer) {
+        if (boggleBoard == null || dictionary == null) {
+            return;
+        }
+        for (String word : solved(boggleBoard, dictionary).words) {
+            consumer.accept(word);
+        }
+    }
+
+    @Override
+    public Map<String, ArrayList<Tile>> findAllWordPaths(char[][] boggleBoard, DictInterface dictionary) {
+        return game.findAllWordPaths(boggleBoard, dictionary);
+    }
+
+    @Override
+    public boolean isWordInDictionary(DictInterface dictionary, String word) {
+        return game.isWordInDictionary(dictionary, word);
+    }
+
+    @Override
+    public boolean isWordInBoard(char[][] boggleBoard, String word) {
+        return game.isWordInBoard(boggleBoard, word);
+    }
+
+    @Override
+    public boolean isWordInBoard(PreparedBoard board, String word) {
+        return game.isWordInBoard(board, word);
+    }
+
+    @Override
+    public String anyWord(char[][] boggleBoard, DictInterface dictionary) {
+        if (boggleBoard == null || dictionary == null) {
+            return game.anyWord(boggleBoard, dictionary);
+        }
+        for (String word : solved(boggleBoard, dictionary).examples) {
+            if (word != null) {
+                return word;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String anyWord(char[][] boggleBoard, DictInterface dictionary, int length) {
+        if (boggleBoard == null || dictionary == null || length < BoggleGame.MIN_WORD_LENGTH) {
+            return game.anyWord(boggleBoard, dictionary, length);
+        }
+        String[] examples = solved(boggleBoard, dictionary).examples;
+        return length < examples.length ? examples[length] : null;
+    }
+
+    @Override
+    public ArrayList<Tile> markWordInBoard(char[][] boggleBoard, String word) {
+        return game.markWordInBoard(boggleBoard, word);
+    }
+
+    @Override
+    public ArrayList<Tile> markWordInBoard(PreparedBoard board, String word) {
+        return game.markWordInBoard(board, word);
+    }
+
+    @Override
+    public boolean checkTiles(char[][] boggleBoard, ArrayList<Tile> tiles, String word) {
+        return game.checkTiles(boggleBoard, tiles, word);
+    }
+
+    /**
+     * Looks the board up in the cache, solving it on a miss. The search runs
+     * outside the lock so that other boards can be looked up meanwhile.
+     */
+    private SolvedBoard solved(char[][] boggleBoard, DictInterface dictionary) {
+        BoardKey key = new BoardKey(boggleBoard, dictionary, collected);
+        synchronized (this) {
+            SolvedBoard solved = cache.get(key);
+            if (solved != null) {
+                hits++;
+                return solved;
+            }
+            misses++;
+        }
+
+        SolvedBoard solved = new SolvedBoard(game.findAllWords(boggleBoard, dictionary));
+        synchronized (this) {
+            dropCollected();
+            cache.put(key, solved);
+        }
+        return solved;
+    }
+
+    /**
+     * Removes the entries for dictionaries that have been garbage collected.
+     * Must be called holding the lock.
+     */
+    private void dropCollected() {
+        boolean any = false;
+        while (collected.poll() != null) {
+            any = true;
+        }
+        if (any) {
+            cache.keySet().removeIf(key -> key.dictionary.get() == null);
+        }
+    }
+
+    /**
+     * The letters of a board, row by row, together with the dictionary it was
+     * solved against. The dictionary is only weakly referenced, so that a
+     * cached board does not keep a dictionary that is no longer used in memory.
+     */
+    private static class BoardKey {
+        private final int rows;
+        private final String letters;
+        private final WeakReference<DictInterface> dictionary;
+        private final int hash;
+
+        BoardKey(char[][] boggleBoard, DictInterface dictionary, ReferenceQueue<DictInterface> collected) {
+            StringBuilder sb = new StringBuilder();
+            for (char[] row : boggleBoard) {
+                for (char c : row) {
+                    sb.append(Character.toLowerCase(c));
+                }
+            }
+            this.rows = boggleBoard.length;
+            this.letters = sb.toString();
+            this.dictionary = new WeakReference<>(dictionary, collected);
+            this.hash = (letters.hashCode() * 31 + rows) * 31 + System.identityHashCode(dictionary);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof BoardKey)) {
+                return false;
+            }
+            BoardKey other = (BoardKey) o;
+            // A collected dictionary reads as null and matches no lookup, which always has one
+            return rows == other.rows && dictionary.get() == other.dictionary.get() && letters.equals(other.letters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * What one solve of a board gives: the words, how many there are of each
+     * length, and one word of each length.
+     */
+    private static class SolvedBoard {
+        final Set<String> words;
+        final int[] counts;
+        final String[] examples;
+
+        SolvedBoard(Set<String> words) {
+            int longest = 0;
+            for (String word : words) {
+                longest = Math.max(longest, word.length());
+            }
+            int[] counts = new int[longest + 1];
+            String[] examples = new String[longest + 1];
+            for (String word : words) {
+                counts[word.length()]++;
+                if (examples[word.length()] == null) {
+                    examples[word.length()] = word;
+                }
+            }
+            this.words = Collections.unmodifiableSet(words);
+            this.counts = counts;
+            this.examples = examples;
+        }
+    }
+}
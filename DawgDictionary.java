@@ -0,0 +1,441 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Consumer;
+/** A DictInterface implementation backed by a minimized DAWG (directed
+ * acyclic word graph): a trie in which identical subtrees, i.e. shared
+ * suffixes, are stored only once.  The graph is built in one pass over the
+ * sorted word list using the incremental algorithm of Daciuk et al., and is
+ * then flattened into two int arrays:
+ *
+ *   nodes[n]    = (index of the first edge of node n) << 1 | (1 if final)
+ *                 with an extra entry at the end so that the edges of node n
+ *                 are nodes[n] >> 1 up to nodes[n+1] >> 1
+ *   edges[3e]   = label of edge e
+ *   edges[3e+1] = node that edge e leads to
+ *   edges[3e+2] = number of words that sort before every word reached
+ *                 through edge e, counting from the edge's source node
+ *
+ * Because nodes are shared, a node does not identify a word by itself.  The
+ * third edge entry fixes that: adding them up along the path to a word gives
+ * the word's position in sorted order, which is used as its wordId.
+ *
+ * Node 0 is the root.  The same two arrays are what save() writes to disk,
+ * so load() can map the file with FileChannel.map and search it in place
+ * without parsing anything.  The only thing worked out on loading is how
+ * many characters can still follow each node, in one pass over the graph,
+ * which lets searches drop prefixes that cannot make a word of the length
+ * they want.  A mapped dictionary lives in the OS page cache
+ * rather than on the heap, and every process that maps the same file shares
+ * it.
+ *
+ * A DawgDictionary cannot be changed once built: add() always returns
+ * false.  Use build() to create one from a list of words.
+ */
+public class DawgDictionary implements DictInterface
+{
+	private static final int MAGIC = 0x44415747;  // "DAWG"
+	private static final int VERSION = 2;
+	private static final int EDGE_INTS = 3;
+	private static final int HEADER_INTS = 5;
+
+	private final IntBuffer nodes;
+	private final IntBuffer edges;
+	private final int nodeCount;
+	private final int wordCount;
+	// Fewest and most characters that follow each node in a word; since
+	// nodes are shared suffixes, this does not depend on the path to them
+	private final int[] shortest;
+	private final int[] longest;
+
+	private DawgDictionary(IntBuffer nodes, IntBuffer edges, int nodeCount, int wordCount)
+	{
+		this.nodes = nodes;
+		this.edges = edges;
+		this.nodeCount = nodeCount;
+		this.wordCount = wordCount;
+		this.shortest = new int[nodeCount];
+		this.longest = new int[nodeCount];
+		Arrays.fill(longest, -1);
+		if (nodeCount > 0)
+			remaining(0);
+	}
+
+	/** Build a DAWG from a collection of words.  The words need not be sorted
+	 * and may contain duplicates.
+	 * @param words the words to put in the dictionary
+	 * @return a new DawgDictionary holding the words
+	 */
+	public static DawgDictionary build(Collection<String> words)
+	{
+		ArrayList<String> sorted = new ArrayList<String>(words);
+		Collections.sort(sorted);
+		return new Builder().build(sorted);
+	}
+
+	/** Map a file written by save() into memory and use it as a dictionary.
+	 * @param path the file to map
+	 * @return a DawgDictionary that reads the mapped file
+	 * @throws IOException if the file cannot be read or is not a DAWG file
+	 */
+	public static DawgDictionary load(Path path) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			IntBuffer ints = buffer.asIntBuffer();
+			if (ints.limit() < HEADER_INTS || ints.get(0) != MAGIC || ints.get(1) != VERSION)
+				throw new IOException(path + " is not a DAWG dictionary file");
+			int nodeCount = ints.get(2);
+			int edgeCount = ints.get(3);
+			int wordCount = ints.get(4);
+			if (ints.limit() != HEADER_INTS + (nodeCount + 1) + EDGE_INTS * edgeCount)
+				throw new IOException(path + " is truncated");
+
+			ints.position(HEADER_INTS).limit(HEADER_INTS + nodeCount + 1);
+			IntBuffer nodes = ints.slice();
+			ints.limit(ints.capacity()).position(HEADER_INTS + nodeCount + 1);
+			IntBuffer edges = ints.slice();
+			return new DawgDictionary(nodes, edges, nodeCount, wordCount);
+		}
+	}
+
+	/** Write the dictionary to a file that load() can map.
+	 * @param path the file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save(Path path) throws IOException
+	{
+		int edgeCount = edges.limit() / EDGE_INTS;
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(path))))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(nodeCount);
+			out.writeInt(edgeCount);
+			out.writeInt(wordCount);
+			for (int i = 0; i <= nodeCount; i++)
+				out.writeInt(nodes.get(i));
+			for (int i = 0; i < EDGE_INTS * edgeCount; i++)
+				out.writeInt(edges.get(i));
+		}
+	}
+
+	/** @return the number of nodes in the minimized graph */
+	public int nodeCount()
+	{
+		return nodeCount;
+	}
+
+	// The DAWG is read only
+	public boolean add(String s)
+	{
+		return false;
+	}
+
+	public int searchPrefix(StringBuilder s)
+	{
+		return searchPrefix(s, 0, s.length()-1);
+	}
+
+	public int searchPrefix(StringBuilder s, int start, int end)
+	{
+		if (end < start)
+			return 0;
+
+		int node = 0;
+		for (int j = start; j <= end; j++)
+		{
+			node = child(node, s.charAt(j));
+			if (node < 0)
+				return 0;
+		}
+		return status(node);
+	}
+
+	// A handle holds the word position reached so far in its top 32 bits
+	// and the node index shifted left past the status code in the rest
+	public long root()
+	{
+		return handle(0, 0);
+	}
+
+	public long step(long handle, char c)
+	{
+		if (DictInterface.status(handle) == 0)
+			return 0;
+		int node = (int) (handle & 0xFFFFFFFFL) >>> 2;
+		int e = edge(node, c);
+		if (e < 0)
+			return 0;
+		int position = (int) (handle >>> 32) + edges.get(EDGE_INTS * e + 2);
+		return handle(edges.get(EDGE_INTS * e + 1), position);
+	}
+
+	// A word is identified by its position in sorted order
+	public int wordId(long handle)
+	{
+		return (int) (handle >>> 32);
+	}
+
+	public int wordIdLimit()
+	{
+		return wordCount;
+	}
+
+	public int size()
+	{
+		return wordCount;
+	}
+
+	public int maxWordLength()
+	{
+		return nodeCount > 0 ? longest[0] : 0;
+	}
+
+	public int minRemaining(long handle)
+	{
+		return shortest[(int) (handle & 0xFFFFFFFFL) >>> 2];
+	}
+
+	public int maxRemaining(long handle)
+	{
+		return longest[(int) (handle & 0xFFFFFFFFL) >>> 2];
+	}
+
+	public void forEachWord(Consumer<CharSequence> action)
+	{
+		forEachWord(0, new StringBuilder(), action);
+	}
+
+	// Fill in shortest and longest for node and everything below it; a
+	// longest of -1 marks a node not done yet
+	private void remaining(int node)
+	{
+		boolean word = (nodes.get(node) & 1) != 0;
+		int min = word ? 0 : Integer.MAX_VALUE;
+		int max = 0;
+		int end = nodes.get(node + 1) >> 1;
+		for (int e = nodes.get(node) >> 1; e < end; e++)
+		{
+			int child = edges.get(EDGE_INTS * e + 1);
+			if (longest[child] < 0)
+				remaining(child);
+			min = Math.min(min, shortest[child] + 1);
+			max = Math.max(max, longest[child] + 1);
+		}
+		shortest[node] = min;
+		longest[node] = max;
+	}
+
+	// Visit the words below node; word holds the prefix that led to node
+	private void forEachWord(int node, StringBuilder word, Consumer<CharSequence> action)
+	{
+		if ((nodes.get(node) & 1) != 0)
+			action.accept(word);
+		int end = nodes.get(node + 1) >> 1;
+		for (int e = nodes.get(node) >> 1; e < end; e++)
+		{
+			word.append((char) edges.get(EDGE_INTS * e));
+			forEachWord(edges.get(EDGE_INTS * e + 1), word, action);
+			word.setLength(word.length() - 1);
+		}
+	}
+
+	private long handle(int node, int position)
+	{
+		return ((long) position << 32) | ((long) node << 2) | status(node);
+	}
+
+
+	private int status(int node)
+	{
+		boolean word = (nodes.get(node) & 1) != 0;
+		boolean prefix = (nodes.get(node + 1) >> 1) > (nodes.get(node) >> 1);
+		if (prefix && word) return 3;
+		else if (word) return 2;
+		else if (prefix) return 1;
+		else return 0;
+	}
+
+	// Find the node reached from node by the edge labelled c, or -1
+	private int child(int node, char c)
+	{
+		int e = edge(node, c);
+		return (e < 0) ? -1 : edges.get(EDGE_INTS * e + 1);
+	}
+
+	// Find the index of the edge labelled c leaving node, or -1
+	private int edge(int node, char c)
+	{
+		int end = nodes.get(node + 1) >> 1;
+		for (int e = nodes.get(node) >> 1; e < end; e++)
+		{
+			if (edges.get(EDGE_INTS * e) == c)
+				return e;
+		}
+		return -1;
+	}
+
+	/** Builds the minimized graph from sorted words.  States whose last word
+	 * has been added are replaced by an equivalent state from the register
+	 * if there is one, and registered otherwise, so that at the end no two
+	 * states in the graph are equivalent.
+	 */
+	private static class Builder
+	{
+		private static class State
+		{
+			char[] labels = new char[0];
+			State[] targets = new State[0];
+			boolean isFinal;
+			int id = -1;  // index in the flattened graph, once registered
+			int wordCount = -1;  // words reachable from here, once counted
+
+			int wordCount()
+			{
+				if (wordCount < 0)
+				{
+					wordCount = isFinal ? 1 : 0;
+					for (State target : targets)
+						wordCount += target.wordCount();
+				}
+				return wordCount;
+			}
+
+			State lastChild()
+			{
+				return targets.length == 0 ? null : targets[targets.length - 1];
+			}
+
+			void addChild(char c, State target)
+			{
+				int n = labels.length;
+				labels = Arrays.copyOf(labels, n + 1);
+				targets = Arrays.copyOf(targets, n + 1);
+				labels[n] = c;
+				targets[n] = target;
+			}
+
+			// Two registered states are equivalent when they agree on
+			// finality and have the same labels leading to the same states
+			String signature()
+			{
+				StringBuilder sb = new StringBuilder();
+				sb.append(isFinal ? '1' : '0');
+				for (int i = 0; i < labels.length; i++)
+					sb.append(labels[i]).append(targets[i].id).append(',');
+				return sb.toString();
+			}
+		}
+
+		private final HashMap<String, State> register = new HashMap<String, State>();
+		private final ArrayList<State> registered = new ArrayList<State>();
+
+		DawgDictionary build(List<String> sorted)
+		{
+			State root = new State();
+			String previous = null;
+			for (String word : sorted)
+			{
+				if (word.equals(previous))
+					continue;
+
+				// Walk down the part of the word that is already in the graph
+				int common = 0;
+				State last = root;
+				while (common < word.length())
+				{
+					int n = last.labels.length;
+					if (n == 0 || last.labels[n - 1] != word.charAt(common))
+						break;
+					last = last.targets[n - 1];
+					common++;
+				}
+
+				// Nothing will be added below last's last child any more
+				if (last.targets.length > 0)
+					replaceOrRegister(last);
+
+				for (int i = common; i < word.length(); i++)
+				{
+					State next = new State();
+					last.addChild(word.charAt(i), next);
+					last = next;
+				}
+				last.isFinal = true;
+				previous = word;
+			}
+			if (root.targets.length > 0)
+				replaceOrRegister(root);
+			root = register(root);
+			return flatten(root);
+		}
+
+		private void replaceOrRegister(State state)
+		{
+			State child = state.lastChild();
+			if (child.lastChild() != null)
+				replaceOrRegister(child);
+			state.targets[state.targets.length - 1] = register(child);
+		}
+
+		private State register(State state)
+		{
+			String key = state.signature();
+			State existing = register.get(key);
+			if (existing != null)
+				return existing;
+			state.id = registered.size();
+			registered.add(state);
+			register.put(key, state);
+			return state;
+		}
+
+		// Number the states so that the root is node 0 and write out the
+		// node and edge arrays
+		private DawgDictionary flatten(State root)
+		{
+			int count = registered.size();
+			int[] order = new int[count];  // old id -> new node index
+			order[root.id] = 0;
+			int next = 1;
+			for (State s : registered)
+			{
+				if (s != root)
+					order[s.id] = next++;
+			}
+
+			State[] byIndex = new State[count];
+			int edgeCount = 0;
+			for (State s : registered)
+			{
+				byIndex[order[s.id]] = s;
+				edgeCount += s.labels.length;
+			}
+
+			int[] nodes = new int[count + 1];
+			int[] edges = new int[EDGE_INTS * edgeCount];
+			int e = 0;
+			for (int n = 0; n < count; n++)
+			{
+				State s = byIndex[n];
+				nodes[n] = (e << 1) | (s.isFinal ? 1 : 0);
+				// The word ending here, if any, sorts before all longer ones
+				int before = s.isFinal ? 1 : 0;
+				for (int i = 0; i < s.labels.length; i++, e++)
+				{
+					edges[EDGE_INTS * e] = s.labels[i];
+					edges[EDGE_INTS * e + 1] = order[s.targets[i].id];
+					edges[EDGE_INTS * e + 2] = before;
+					before += s.targets[i].wordCount();
+				}
+			}
+			nodes[count] = e << 1;
+			return new DawgDictionary(IntBuffer.wrap(nodes), IntBuffer.wrap(edges), count, root.wordCount());
+		}
+	}
+}
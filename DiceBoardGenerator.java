@@ -0,0 +1,88 @@
+import java.util.SplittableRandom;
+
+/**
+ * Rolls Boggle dice: the dice are shuffled into the cells and each one shows
+ * a random face. The Q face stands for "Qu", as on the real dice. A board
+ * with more cells than there are dice uses further shuffled copies of the
+ * set, so any size can be generated.
+ */
+public class DiceBoardGenerator implements BoardGenerator {
+    // The 16 dice of the classic 4x4 game
+    private static final String[] CLASSIC_DICE = {
+        "AAEEGN", "ABBJOO", "ACHOPS", "AFFKPS", "AOOTTW", "CIMOTU", "DEILRX", "DELRVY",
+        "DISTTY", "EEGHNW", "EEINSU", "EHRTVW", "EIOSST", "ELRTTY", "HIMNQU", "HLNNRZ"
+    };
+
+    // The 25 dice of the 5x5 Big Boggle game
+    private static final String[] BIG_DICE = {
+        "AAAFRS", "AAEEEE", "AAFIRS", "ADENNN", "AEEEEM", "AEEGMU", "AEGMNN", "AFIRSY",
+        "BJKQXZ", "CCENST", "CEIILT", "CEILPT", "CEIPST", "DDHNOT", "DHHLOR", "DHLNOR",
+        "DHLNOR", "EIIITT", "EMOTTT", "ENSSSU", "FIPRSY", "GORRVW", "IPRRRY", "NOOTUW",
+        "OOOTTU"
+    };
+
+    private final String[] dice;
+
+    /**
+     * Creates a generator that rolls the given dice.
+     *
+     * @param dice The faces of each die, as uppercase letters. Must not be empty.
+     */
+    public DiceBoardGenerator(String[] dice) {
+        if (dice.length == 0) {
+            throw new IllegalArgumentException("No dice to roll");
+        }
+        this.dice = dice.clone();
+    }
+
+    /**
+     * @return A generator that rolls the 16 dice of the classic 4x4 game.
+     */
+    public static DiceBoardGenerator classic() {
+        return new DiceBoardGenerator(CLASSIC_DICE);
+    }
+
+    /**
+     * @return A generator that rolls the 25 dice of the 5x5 Big Boggle game.
+     */
+    public static DiceBoardGenerator big() {
+        return new DiceBoardGenerator(BIG_DICE);
+    }
+
+    @Override
+    public char[][] generate(int size, SplittableRandom random) {
+        char[][] board = new char[size][size];
+        int[] order = new int[dice.length];
+        int left = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                // Take a new shuffled copy of the set once every die is used
+                if (left == 0) {
+                    shuffle(order, random);
+                    left = order.length;
+                }
+                String die = dice[order[--left]];
+                board[i][j] = die.charAt(random.nextInt(die.length()));
+            }
+        }
+        return board;
+    }
+
+    @Override
+    public boolean hasQuTiles() {
+        return true;
+    }
+
+    // Fisher-Yates shuffle of the die numbers
+    private static void shuffle(int[] order, SplittableRandom random) {
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+    }
+}
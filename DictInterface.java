@@ -1,5 +1,11 @@
+import java.util.Collection;
+import java.util.function.Consumer;
+
 /** An interface for a dictionary of words. The dictionary allows 
  * searching for complete words as well as word prefixes.
+ * The search methods (searchPrefix, root and step) only read the dictionary,
+ * so once it has been filled it can be searched by many threads at once, as
+ * long as nothing is added to it at the same time.
  * Adapted from Dr. John Ramirez's CS 1501 Assignment 1
  */
 public interface DictInterface
@@ -9,6 +15,23 @@ public interface DictInterface
 	 * @return true if the string was added successfully; false otherwise
 	 */
 	public boolean add(String s);
+
+	/** Add every String in a collection to the DictInterface.  Implementations
+	 * that can build themselves more efficiently from many words at once than
+	 * one add() at a time should override this method.
+	 * @param words the strings to be added
+	 * @return true if the DictInterface changed as a result of the call
+	 */
+	public default boolean addAll(Collection<String> words)
+	{
+		boolean changed = false;
+		for (String s : words)
+		{
+			if (add(s))
+				changed = true;
+		}
+		return changed;
+	}
 	
 	
 
@@ -40,4 +63,99 @@ public interface DictInterface
 	 * @return
 	 */
 	public int searchPrefix(StringBuilder s, int start, int end);
+
+	/** The methods below let a caller walk down the dictionary one character
+	 * at a time instead of searching for the whole prefix again each time it
+	 * grows.  A handle stands for one prefix; the status code of that prefix
+	 * (as returned by searchPrefix) is kept in its low two bits and can be
+	 * read with status().  The rest of a handle is private to the
+	 * implementation.
+	 * @return a handle for the empty prefix.  Its status is 0 if the
+	 *         dictionary is empty, otherwise the empty prefix counts as a
+	 *         prefix of every word
+	 */
+	public long root();
+
+	/** Extend the prefix represented by a handle by one character.  This should
+	 * cost O(1) (or close to it) regardless of the length of the prefix.
+	 * @param handle a handle returned by root() or step()
+	 * @param c the character to append to the prefix
+	 * @return a handle for the extended prefix.  If its status is 0 the
+	 *         extended prefix is not in the DictInterface, and stepping it
+	 *         further also gives status 0
+	 */
+	public long step(long handle, char c);
+
+	/** Get the status code of the prefix represented by a handle
+	 * @param handle a handle returned by root() or step()
+	 * @return 0, 1, 2 or 3 with the same meaning as for searchPrefix
+	 */
+	public static int status(long handle)
+	{
+		return (int) (handle & 3);
+	}
+
+	/** Get a number that identifies the word represented by a handle.  Different
+	 * words get different numbers, all from 0 up to wordIdLimit() - 1, so a
+	 * caller can keep track of words it has already seen in a bitset instead
+	 * of hashing Strings.  Ids may change when words are added.
+	 * @param handle a handle whose status is 2 or 3
+	 * @return the id of the word
+	 */
+	public int wordId(long handle);
+
+	/** @return one more than the largest id that wordId() can return
+	 */
+	public int wordIdLimit();
+
+	/** @return the number of different words in the DictInterface
+	 */
+	public int size();
+
+	/** @return the length of the longest word in the DictInterface, or 0 if
+	 *         it is empty.  Searches use it to stop a path that is already as
+	 *         long as any word.  This default walks every word, so
+	 *         implementations should keep the length up to date instead
+	 */
+	public default int maxWordLength()
+	{
+		int[] longest = new int[1];
+		forEachWord(word -> longest[0] = Math.max(longest[0], word.length()));
+		return longest[0];
+	}
+
+	/** Get the fewest characters that must be appended to the prefix
+	 * represented by a handle to make a word, 0 if the prefix is a word
+	 * itself.  A search that only wants words up to some length can give up
+	 * on a prefix that needs more characters than it has room for.  The
+	 * default only looks at the status code; an implementation may answer
+	 * less than the true number but never more.
+	 * @param handle a handle whose status is not 0
+	 * @return a lower bound on the characters needed to complete a word
+	 */
+	public default int minRemaining(long handle)
+	{
+		return (status(handle) & 2) != 0 ? 0 : 1;
+	}
+
+	/** Get the most characters that can be appended to the prefix represented
+	 * by a handle while still making a word.  A search that only wants words
+	 * of at least some length can give up on a prefix whose words are all
+	 * shorter.  The default only looks at the status code; an implementation
+	 * may answer more than the true number but never less.
+	 * @param handle a handle whose status is not 0
+	 * @return an upper bound on the characters that can follow the prefix in a word
+	 */
+	public default int maxRemaining(long handle)
+	{
+		return (status(handle) & 1) != 0 ? Integer.MAX_VALUE : 0;
+	}
+
+	/** Pass every different word in the DictInterface to an action, once each.
+	 * The words are not necessarily in order.  The CharSequence may be a
+	 * buffer that is reused for the next word, so it is only valid during the
+	 * call; use toString() to keep a word.
+	 * @param action called with each word
+	 */
+	public void forEachWord(Consumer<CharSequence> action);
 }
\ No newline at end of file
@@ -0,0 +1,310 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads a word list, one word per line, fast enough for lists of millions
+ * of words. The file is split into chunks that start and end at line
+ * breaks; each chunk is memory-mapped and parsed straight from the mapping
+ * on a ForkJoinPool worker through a small window copied from the mapping,
+ * and the words of all chunks are joined in file order. Lines are split at '\n', a trailing '\r' is dropped, and empty
+ * lines are skipped. Lines that are pure ASCII, as word lists almost always
+ * are, become Strings without going through a decoder; other lines are
+ * decoded as UTF-8.
+ *
+ * The list can be handed to a dictionary's addAll, or to
+ * DawgDictionary.build, which build the dictionary in bulk. A sorted file
+ * gives a sorted list, which those bulk builds sort fastest.
+ *
+ * readNormalizedWords also cleans the list up for the game while it parses:
+ * spaces around a word are trimmed, letters are lowercased to match
+ * PreparedBoard, words with anything but the letters A to Z in them or
+ * shorter than the game's minimum are dropped, and the rest come back sorted
+ * without duplicates. Dictionaries built from that list only hold words a
+ * board can spell, and nothing on the search path has to convert case.
+ */
+public class DictionaryLoader {
+    // Chunks smaller than this are not worth a task of their own
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    // A single mapping cannot be bigger than Integer.MAX_VALUE bytes
+    private static final long MAX_CHUNK_BYTES = 1 << 30;
+    // The part of a chunk copied to the heap at a time
+    private static final int WINDOW_BYTES = 1 << 16;
+
+    private DictionaryLoader() {
+    }
+
+    /**
+     * Reads the words of a file on the common ForkJoinPool.
+     *
+     * @param file The word list to read.
+     * @return The words, in the order they are in the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<String> readWords(Path file) throws IOException {
+        return readWords(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads the words of a file.
+     *
+     * @param file The word list to read.
+     * @param pool The pool to parse the chunks in.
+     * @return The words, in the order they are in the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<String> readWords(Path file, ForkJoinPool pool) throws IOException {
+        List<List<String>> chunks = readChunks(file, pool, false, 0);
+        List<String> words = new ArrayList<>(wordCount(chunks));
+        for (List<String> chunk : chunks) {
+            words.addAll(chunk);
+        }
+        return words;
+    }
+
+    /**
+     * Reads the words of a file on the common ForkJoinPool, normalized for
+     * the game.
+     *
+     * @param file      The word list to read.
+     * @param minLength The fewest letters a word may have; shorter words are dropped.
+     * @return The lowercase words made only of the letters a to z, sorted and without duplicates.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<String> readNormalizedWords(Path file, int minLength) throws IOException {
+        return readNormalizedWords(file, minLength, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads the words of a file, normalized for the game.
+     *
+     * @param file      The word list to read.
+     * @param minLength The fewest letters a word may have; shorter words are dropped.
+     * @param pool      The pool to parse the chunks in.
+     * @return The lowercase words made only of the letters a to z, sorted and without duplicates.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<String> readNormalizedWords(Path file, int minLength, ForkJoinPool pool)
+            throws IOException {
+        List<List<String>> chunks = readChunks(file, pool, true, Math.max(minLength, 1));
+        String[] all = new String[wordCount(chunks)];
+        int n = 0;
+        for (List<String> chunk : chunks) {
+            for (String word : chunk) {
+                all[n++] = word;
+            }
+        }
+        // Lowercasing can make duplicates anywhere in the file, so sort to bring them together
+        Arrays.parallelSort(all);
+
+        List<String> words = new ArrayList<>(all.length);
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || !all[i].equals(all[i - 1])) {
+                words.add(all[i]);
+            }
+        }
+        return words;
+    }
+
+    // The words of each chunk of the file, in file order
+    private static List<List<String>> readChunks(Path file, ForkJoinPool pool, boolean normalize, int minLength)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, pool.getParallelism());
+            List<ForkJoinTask<List<String>>> tasks = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                tasks.add(pool.submit(() -> parseChunk(channel, start, end, normalize, minLength)));
+            }
+
+            List<List<String>> chunks = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<List<String>> task : tasks) {
+                chunks.add(task.get());
+            }
+            return chunks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading " + file, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to read " + file, e.getCause());
+        }
+    }
+
+    private static int wordCount(List<List<String>> chunks) {
+        int total = 0;
+        for (List<String> chunk : chunks) {
+            total += chunk.size();
+        }
+        return total;
+    }
+
+    /**
+     * Reads the words of a file into a dictionary with a single addAll call.
+     *
+     * @param file       The word list to read.
+     * @param dictionary The dictionary to add the words to.
+     * @return The dictionary.
+     * @throws IOException If the file cannot be read.
+     */
+    public static <D extends DictInterface> D load(Path file, D dictionary) throws IOException {
+        dictionary.addAll(readWords(file));
+        return dictionary;
+    }
+
+    /**
+     * Splits a file into chunks of about equal size, moving each split
+     * forward to just after the next line break.
+     *
+     * @return The chunk boundaries: chunk i is bytes bounds[i] up to bounds[i + 1].
+     */
+    private static long[] chunkBounds(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        // A few chunks per worker evens out chunks that parse slower than others
+        long chunks = Math.max(1, Math.min((long) parallelism * 4, size / MIN_CHUNK_BYTES));
+        chunks = Math.max(chunks, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+
+        long[] bounds = new long[(int) chunks + 1];
+        bounds[(int) chunks] = size;
+        ByteBuffer scan = ByteBuffer.allocate(256);
+        for (int i = 1; i < chunks; i++) {
+            long position = Math.max(bounds[i - 1], size / chunks * i);
+            bounds[i] = nextLineStart(channel, position, size, scan);
+        }
+        return bounds;
+    }
+
+    // The position just after the first '\n' at or after position, or size if there is none
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer scan)
+            throws IOException {
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Parses the words of a chunk through a window of WINDOW_BYTES, copied
+    // from the mapping one window at a time, so memory use does not grow with
+    // the file. A line cut off at the end of a window moves to the front of
+    // the next one.
+    private static List<String> parseChunk(FileChannel channel, long start, long end,
+                                           boolean normalize, int minLength) throws IOException {
+        int length = (int) (end - start);
+        List<String> words = new ArrayList<>(length / 8);
+        if (length == 0) {
+            return words;
+        }
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        byte[] window = new byte[Math.min(WINDOW_BYTES, length)];
+        byte[] line = normalize ? new byte[64] : null;
+
+        int kept = 0;
+        int position = 0;
+        while (true) {
+            int count = Math.min(window.length - kept, length - position);
+            mapped.get(position, window, kept, count);
+            position += count;
+            int filled = kept + count;
+
+            int lineStart = 0;
+            for (int i = 0; i < filled; i++) {
+                if (window[i] == '\n') {
+                    line = addLine(window, lineStart, i, normalize, minLength, line, words);
+                    lineStart = i + 1;
+                }
+            }
+            if (position == length) {
+                addLine(window, lineStart, filled, normalize, minLength, line, words);
+                return words;
+            }
+
+            kept = filled - lineStart;
+            if (kept == window.length) {
+                // A line longer than the window
+                window = Arrays.copyOf(window, window.length * 2);
+            } else {
+                System.arraycopy(window, lineStart, window, 0, kept);
+            }
+        }
+    }
+
+    // Adds the line bytes[from] up to bytes[to], and returns the line buffer,
+    // grown if the line did not fit
+    private static byte[] addLine(byte[] bytes, int from, int to, boolean normalize, int minLength, byte[] line,
+                                  List<String> words) {
+        if (normalize) {
+            if (to - from > line.length) {
+                line = new byte[Math.max(to - from, line.length * 2)];
+            }
+            addNormalized(bytes, from, to, minLength, line, words);
+            return line;
+        }
+
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        if (to > from) {
+            int highBits = 0;
+            for (int i = from; i < to; i++) {
+                highBits |= bytes[i];
+            }
+            // A negative byte is part of a multi-byte UTF-8 character
+            words.add(new String(bytes, from, to - from,
+                                 highBits < 0 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1));
+        }
+        return line;
+    }
+
+    // Adds the line bytes[from] up to bytes[to] as a word if, once trimmed, it
+    // is long enough and only letters. The letters are lowercased as they are
+    // copied into the line buffer the String is made from.
+    private static void addNormalized(byte[] bytes, int from, int to, int minLength, byte[] line,
+                                      List<String> words) {
+        while (from < to && isSpace(bytes[from])) {
+            from++;
+        }
+        while (to > from && isSpace(bytes[to - 1])) {
+            to--;
+        }
+        if (to - from < minLength) {
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b >= 'A' && b <= 'Z') {
+                b = (byte) (b | 0x20);
+            } else if (b < 'a' || b > 'z') {
+                return;
+            }
+            line[i - from] = b;
+        }
+        words.add(new String(line, 0, to - from, StandardCharsets.ISO_8859_1));
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the dictionary that games are played with, and lets it be replaced
+ * while searches are running, for word lists that change during the day.
+ *
+ * A new dictionary is built on the registry's own loader thread, off the
+ * threads that solve boards, and then published by writing one volatile
+ * field. Readers take a lease with acquire() for the length of a search, so
+ * a search that started on the old dictionary finishes on it, and every
+ * search that starts after the swap sees the new one. Neither side takes a
+ * lock: a lease costs two atomic updates of a reader count. Once a
+ * dictionary has been replaced and its last lease is closed, it is retired:
+ * the registry no longer refers to it, and the future publish() returned
+ * completes.
+ *
+ * Dictionaries must not be changed after they are published; build a new one
+ * and publish that instead.
+ */
+public class DictionaryRegistry {
+    private final Callable<? extends DictInterface> source;
+    // Builds dictionaries one at a time, in the order reloads were asked for
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "dictionary-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Version current = new Version(null, 0);
+    // The reload from source that has been asked for but not started; guarded by this
+    private CompletableFuture<Long> queuedReload;
+
+    /**
+     * Creates a registry with no dictionary yet. current() returns null until
+     * one is published.
+     */
+    public DictionaryRegistry() {
+        this.source = null;
+    }
+
+    /**
+     * Creates a registry holding a dictionary.
+     *
+     * @param initial The dictionary to start with. Must not be null.
+     */
+    public DictionaryRegistry(DictInterface initial) {
+        this(initial, null);
+    }
+
+    /**
+     * Creates a registry holding a dictionary, which reload() rebuilds from a source.
+     *
+     * @param initial The dictionary to start with. Must not be null.
+     * @param source  Builds a new dictionary each time it is called, or null if there is none.
+     */
+    public DictionaryRegistry(DictInterface initial, Callable<? extends DictInterface> source) {
+        if (initial == null) {
+            throw new IllegalArgumentException("Cannot publish a null dictionary");
+        }
+        this.source = source;
+        this.current = new Version(initial, 1);
+    }
+
+    /**
+     * Creates a registry for a dictionary file. A .dawg file is mapped;
+     * any other file is read as a word list, normalized, and built into a
+     * DAWG. reload() reads the file again.
+     *
+     * @param file The dictionary file.
+     * @return A registry holding the dictionary in the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static DictionaryRegistry forFile(Path file) throws IOException {
+        return new DictionaryRegistry(loadFile(file), () -> loadFile(file));
+    }
+
+    /**
+     * Loads the dictionary in a file the way forFile() describes.
+     */
+    private static DictInterface loadFile(Path file) throws IOException {
+        if (file.toString().endsWith(".dawg")) {
+            return DawgDictionary.load(file);
+        }
+        return DawgDictionary.build(DictionaryLoader.readNormalizedWords(file, BoggleGame.MIN_WORD_LENGTH));
+    }
+
+    /**
+     * @return The dictionary searches started now will use, or null if none
+     *         has been published. Use acquire() instead to make sure the
+     *         dictionary is not retired while it is being used.
+     */
+    public DictInterface current() {
+        return current.dictionary;
+    }
+
+    /**
+     * @return The version of the current dictionary: 1 for the first one
+     *         published, 2 for the next one, and so on, or 0 if there is none.
+     */
+    public long version() {
+        return current.number;
+    }
+
+    /**
+     * @return True if reload() has a source to rebuild the dictionary from.
+     */
+    public boolean canReload() {
+        return source != null;
+    }
+
+    /**
+     * Takes a lease on the current dictionary. The dictionary is not retired
+     * until the lease is closed, so use it in a try-with-resources statement
+     * around a search.
+     *
+     * @return A lease on the current dictionary.
+     */
+    public Lease acquire() {
+        while (true) {
+            Version version = current;
+            version.readers.incrementAndGet();
+            // If the version was replaced before the count went up, it may
+            // already be retired; try again on the new one
+            if (version == current) {
+                return new Lease(version);
+            }
+            version.release();
+        }
+    }
+
+    /**
+     * Makes a dictionary the current one. Searches already running keep the
+     * dictionary they started with.
+     *
+     * @param dictionary The new dictionary. Must not be null.
+     * @return A future that completes when every lease on the replaced
+     *         dictionary has been closed.
+     */
+    public synchronized CompletableFuture<Void> publish(DictInterface dictionary) {
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Cannot publish a null dictionary");
+        }
+        Version old = current;
+        current = new Version(dictionary, old.number + 1);
+        // Drop the registry's own count; the old version retires now if no lease is open
+        old.release();
+        return old.drained;
+    }
+
+    /**
+     * Builds a new dictionary from the registry's source in the background
+     * and publishes it. Calls made while an earlier reload is still waiting
+     * to start share it rather than queuing another build, so there is never
+     * more than one build running and one waiting, however often this is
+     * called. A build that has already started may have read the source
+     * before it last changed, so a reload asked for then gets a build of
+     * its own.
+     *
+     * @return A future that completes with the new version once it is
+     *         published, or exceptionally if the build fails, in which case
+     *         the current dictionary stays.
+     * @throws IllegalStateException If the registry has no source.
+     */
+    public synchronized CompletableFuture<Long> reload() {
+        if (source == null) {
+            throw new IllegalStateException("No source to reload the dictionary from");
+        }
+        if (queuedReload == null) {
+            queuedReload = reload(() -> {
+                synchronized (this) {
+                    queuedReload = null;
+                }
+                return source.call();
+            });
+        }
+        return queuedReload;
+    }
+
+    /**
+     * Builds a new dictionary in the background and publishes it.
+     *
+     * @param builder Builds the new dictionary. Must not be null.
+     * @return A future that completes with the new version once it is
+     *         published, or exceptionally if the build fails, in which case
+     *         the current dictionary stays.
+     */
+    public CompletableFuture<Long> reload(Callable<? extends DictInterface> builder) {
+        return CompletableFuture.supplyAsync(() -> {
+            DictInterface dictionary;
+            try {
+                dictionary = builder.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+            synchronized (this) {
+                publish(dictionary);
+                return current.number;
+            }
+        }, loader);
+    }
+
+    /**
+     * A hold on one version of the dictionary, which keeps it from being
+     * retired until close() is called. A lease belongs to the thread that
+     * acquired it.
+     */
+    public static class Lease implements AutoCloseable {
+        private final Version version;
+        private boolean closed;
+
+        private Lease(Version version) {
+            this.version = version;
+        }
+
+        /**
+         * @return The leased dictionary, or null if none had been published.
+         */
+        public DictInterface dictionary() {
+            return version.dictionary;
+        }
+
+        /**
+         * @return The version of the leased dictionary.
+         */
+        public long version() {
+            return version.number;
+        }
+
+        /**
+         * Gives up the lease. Closing it again does nothing.
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                version.release();
+            }
+        }
+    }
+
+    /**
+     * One published dictionary and the leases open on it.
+     */
+    private static class Version {
+        final DictInterface dictionary;
+        final long number;
+        // One for each open lease, plus one held by the registry while this
+        // is the current version, so the count cannot reach zero before the swap
+        final AtomicInteger readers = new AtomicInteger(1);
+        final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+        Version(DictInterface dictionary, long number) {
+            this.dictionary = dictionary;
+            this.number = number;
+        }
+
+        void release() {
+            // A reader that raced the swap may take the count back up from
+            // zero in acquire(), but it lets go again without a lease, and
+            // completing drained twice does nothing
+            if (readers.decrementAndGet() == 0) {
+                drained.complete(null);
+            }
+        }
+    }
+}
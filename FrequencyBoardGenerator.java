@@ -0,0 +1,63 @@
+import java.util.SplittableRandom;
+
+/**
+ * Draws letters as often as they occur in English text, so that boards hold
+ * about as many words as real ones and the solver searches as deep as it
+ * does in a real game.
+ */
+public class FrequencyBoardGenerator implements BoardGenerator {
+    // How often each letter from A to Z occurs in English, in thousandths of a percent
+    private static final int[] FREQUENCIES = {
+        8167, 1492, 2782, 4253, 12702, 2228, 2015, 6094, 6966, 153, 772, 4025, 2406,
+        6749, 7507, 1929, 95, 5987, 6327, 9056, 2758, 978, 2360, 150, 1974, 74
+    };
+
+    private final int[] cumulative = new int[26];
+    private final boolean quTiles;
+
+    /**
+     * Creates a generator with plain Q cells.
+     */
+    public FrequencyBoardGenerator() {
+        this(false);
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param quTiles True if the Q cells should stand for "Qu".
+     */
+    public FrequencyBoardGenerator(boolean quTiles) {
+        this.quTiles = quTiles;
+        int total = 0;
+        for (int i = 0; i < 26; i++) {
+            total += FREQUENCIES[i];
+            cumulative[i] = total;
+        }
+    }
+
+    @Override
+    public char[][] generate(int size, SplittableRandom random) {
+        char[][] board = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                board[i][j] = letter(random.nextInt(cumulative[25]));
+            }
+        }
+        return board;
+    }
+
+    @Override
+    public boolean hasQuTiles() {
+        return quTiles;
+    }
+
+    // The letter whose share of the cumulative table holds r
+    private char letter(int r) {
+        int i = 0;
+        while (cumulative[i] <= r) {
+            i++;
+        }
+        return (char) ('A' + i);
+    }
+}
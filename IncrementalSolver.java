@@ -0,0 +1,172 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The words on a board, kept up to date as single tiles change. Every word is
+ * stored with the cells of one path that spells it. When a tile changes:
+ *
+ *   - a word whose stored path avoids the tile is still there, unchanged;
+ *   - the words with a path through the tile are found by searching only
+ *     paths that pass through it (BoardSolver.findWordPathsThrough), which
+ *     also gives the words that are new;
+ *   - a word whose stored path went through the tile and that was not found
+ *     again through it is looked for once more with the indexed single-word
+ *     search, and dropped if it has no other path.
+ *
+ * So an update costs a search of the tile's neighborhood plus one word check
+ * per word that used the tile, rather than a search of the whole board. When
+ * the longest dictionary word could reach every cell from the changed tile,
+ * as on small boards, there is nothing to save, and the board is simply
+ * solved again in full.
+ *
+ * Words of BoggleGame.MIN_WORD_LENGTH letters or more are kept, as for
+ * countWords. An IncrementalSolver must not be used by two threads at the
+ * same time, and the dictionary must not be changed while it is in use.
+ */
+public class IncrementalSolver {
+    private final DictInterface dictionary;
+    private final BoardSolver solver = new BoardSolver();
+    private final int longestWord;
+    private final Map<String, int[]> wordCells = new HashMap<>();
+    private final Map<String, int[]> found = new HashMap<>();
+    private final ArrayList<String> lost = new ArrayList<>();
+    private PreparedBoard board;
+    private int[] scratchCells = new int[16];
+
+    /**
+     * Solves a board in full.
+     *
+     * @param boggleBoard The 2D array representing the Boggle board. Must not be null.
+     * @param dictionary  The dictionary to check against. Must not be null.
+     * @param quTiles     True if every Q cell stands for "qu".
+     */
+    public IncrementalSolver(char[][] boggleBoard, DictInterface dictionary, boolean quTiles) {
+        this.dictionary = dictionary;
+        this.board = new PreparedBoard(boggleBoard, quTiles);
+
+        // Bounds how far from a changed tile a path through it can start
+        this.longestWord = dictionary.maxWordLength();
+
+        solver.findWordCells(board, dictionary, BoggleGame.MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH, wordCells);
+    }
+
+    /**
+     * Changes one tile and brings the words up to date.
+     *
+     * @param row    The row of the tile.
+     * @param col    The column of the tile.
+     * @param letter The new letter for the tile. Must be ASCII.
+     * @return The number of words on the changed board.
+     * @throws IllegalArgumentException If the letter is not ASCII; the board is then left as it was.
+     */
+    public int setLetter(int row, int col, char letter) {
+        int cell = row * board.cols() + col;
+        if (board.letter(cell) == Character.toLowerCase(letter)) {
+            return wordCells.size();
+        }
+        board = board.withLetter(cell, letter);
+
+        int farthest = Math.max(Math.max(row, board.rows() - 1 - row), Math.max(col, board.cols() - 1 - col));
+        if (farthest <= longestWord - 1) {
+            wordCells.clear();
+            solver.findWordCells(board, dictionary, BoggleGame.MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH, wordCells);
+            return wordCells.size();
+        }
+
+        // Words whose stored path used the tile need checking again
+        for (Iterator<Map.Entry<String, int[]>> it = wordCells.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, int[]> entry = it.next();
+            if (contains(entry.getValue(), cell)) {
+                lost.add(entry.getKey());
+                it.remove();
+            }
+        }
+
+        solver.findWordPathsThrough(board, dictionary, BoggleGame.MIN_WORD_LENGTH, longestWord, cell, found);
+        wordCells.putAll(found);
+        found.clear();
+
+        // A lost word not found through the tile may still have another path
+        for (String word : lost) {
+            if (wordCells.containsKey(word)) {
+                continue;
+            }
+            if (scratchCells.length < word.length()) {
+                scratchCells = new int[word.length()];
+            }
+            int count = solver.findPath(board, word, scratchCells);
+            if (count >= 0) {
+                int[] cells = new int[count];
+                System.arraycopy(scratchCells, 0, cells, 0, count);
+                wordCells.put(word, cells);
+            }
+        }
+        lost.clear();
+        return wordCells.size();
+    }
+
+    /**
+     * @return The number of words on the board.
+     */
+    public int count() {
+        return wordCells.size();
+    }
+
+    /**
+     * @return A read-only view of the lowercase words on the board, which follows later changes.
+     */
+    public Set<String> words() {
+        return Collections.unmodifiableSet(wordCells.keySet());
+    }
+
+    /**
+     * @param word A lowercase word.
+     * @return The tiles of a path spelling the word, or null if the word is not on the board.
+     */
+    public ArrayList<Tile> path(String word) {
+        int[] cells = wordCells.get(word);
+        if (cells == null) {
+            return null;
+        }
+        ArrayList<Tile> tiles = new ArrayList<>(cells.length);
+        for (int cell : cells) {
+            tiles.add(new Tile(cell / board.cols(), cell % board.cols()));
+        }
+        return tiles;
+    }
+
+    /**
+     * @param row The row of the tile.
+     * @param col The column of the tile.
+     * @return The lowercase letter on the tile.
+     */
+    public char letter(int row, int col) {
+        return board.letter(row * board.cols() + col);
+    }
+
+    /**
+     * @return The current board as a 2D array of uppercase letters.
+     */
+    public char[][] board() {
+        char[][] letters = new char[board.rows()][board.cols()];
+        for (int i = 0; i < board.rows(); i++) {
+            for (int j = 0; j < board.cols(); j++) {
+                letters[i][j] = Character.toUpperCase(board.letter(i * board.cols() + j));
+            }
+        }
+        return letters;
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int c : cells) {
+            if (c == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in a fixed set of buckets, so that percentiles can be read
+ * at any time without keeping every sample. Latencies are bucketed in
+ * microseconds: below 16 us each microsecond has its own bucket, and above
+ * that every power of two is split into 16 equal buckets, so a reported
+ * percentile is at most about 6% above the true value. Recording is a single
+ * atomic increment and is safe from any number of threads.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds. Negative values count as 0.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(Math.max(0, nanos / 1000)));
+    }
+
+    /**
+     * @return The number of latencies recorded.
+     */
+    public long count() {
+        long total = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            total += counts.get(b);
+        }
+        return total;
+    }
+
+    /**
+     * Reads a percentile. Latencies recorded while this runs may or may not
+     * be counted.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return An upper bound in microseconds on the latency below which that
+     *         percentage of the recorded latencies fall, or 0 if none were recorded.
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            snapshot[b] = counts.get(b);
+            total += snapshot[b];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += snapshot[b];
+            if (seen >= rank) {
+                return upperBound(b);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Forgets every latency recorded so far.
+     */
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++) {
+            counts.set(b, 0);
+        }
+    }
+
+    private static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        // The top SUB_BITS + 1 bits of the value: the power of two and the sixteenth within it
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -1,14 +1,21 @@
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class Main {
+    private static final int MAX_DISPLAY_SIZE = 40;
+
     private BoggleGameInterface boggleGame;
     private Scanner scan;
     private char[][] boggleBoard;
-    private DictInterface D;
+    // Loading a new dictionary while one is in use happens in the background
+    private final DictionaryRegistry dictionaries = new DictionaryRegistry();
     private MenuProgram program;
 
     public static void main(String[] args) {
@@ -61,12 +68,18 @@ public class Main {
             if (boggleBoard == null) {
                 System.out.println("Please generate a board first.");
             } else {
-                for (int i = 0; i < boggleBoard.length; i++) {
-                    for (int j = 0; j < boggleBoard.length; j++) {
+                // Printing every cell of a big board would flood the console
+                int shown = Math.min(boggleBoard.length, MAX_DISPLAY_SIZE);
+                for (int i = 0; i < shown; i++) {
+                    for (int j = 0; j < shown; j++) {
                         System.out.print(Character.toUpperCase(boggleBoard[i][j]) + " ");
                     }
                     System.out.println();
                 }
+                if (shown < boggleBoard.length) {
+                    System.out.println("(top-left " + shown + "x" + shown + " of the " + boggleBoard.length
+                            + "x" + boggleBoard.length + " board)");
+                }
             }
         }
 
@@ -81,25 +94,91 @@ public class Main {
 
         @Override
         public void handle() {
+            int type = readDictionaryType();
             String fileName = null;
-            Scanner fileScan = null;
             while (true) {
                 fileName = program.readString("Please enter filename: ");
-                try {
-                    fileScan = new Scanner(new FileInputStream(fileName));
-                    break;
-                } catch (FileNotFoundException e) {
+                Path file = Paths.get(fileName);
+                if (!Files.isRegularFile(file)) {
                     System.out.println("File not found!");
+                    continue;
+                }
+                CompletableFuture<Long> loaded = dictionaries.reload(() -> loadDictionary(type, file));
+                if (dictionaries.current() == null) {
+                    // Nothing can be played until the first dictionary is in
+                    try {
+                        loaded.join();
+                    } catch (CompletionException e) {
+                        System.out.println("Could not load " + file + ": " + e.getCause().getMessage());
+                        continue;
+                    }
+                } else {
+                    System.out.println("Loading " + file + " in the background; "
+                            + "the current dictionary stays in use until it is ready.");
+                    loaded.whenComplete((version, e) -> System.out.println(e == null
+                            ? "Dictionary version " + version + " is ready."
+                            : "Could not load " + file + ": " + e.getCause().getMessage()));
+                }
+                break;
+            }
+
+        }
+
+        private int readDictionaryType() {
+            while (true) {
+                int choice = program.readInteger("Please choose a dictionary type "
+                        + "(1 = sorted list, 2 = trie, 3 = sorted list with binary search, 4 = DAWG): ");
+                if (choice >= 1 && choice <= 4) {
+                    return choice;
                 }
+                System.out.println("Invalid dictionary type!");
             }
-            String st;
-            D = new MyDictionary();
+        }
 
-            while (fileScan.hasNext()) {
-                st = fileScan.nextLine();
-                D.add(st);
+        private DictInterface loadDictionary(int type, Path file) throws IOException {
+            if (type == 4) {
+                return loadDawg(file);
+            }
+            List<String> words = DictionaryLoader.readNormalizedWords(file, BoggleGame.MIN_WORD_LENGTH);
+            DictInterface dictionary;
+            if (type == 1) {
+                dictionary = new MyDictionary();
+            } else if (type == 2) {
+                dictionary = new TrieDictionary();
+            } else {
+                dictionary = new MyDictionary(true);
             }
+            dictionary.addAll(words);
+            return dictionary;
+        }
 
+        // A .dawg file is mapped directly.  For a word list, a compiled copy is
+        // kept next to it and rebuilt when the list is newer, or when the copy
+        // cannot be loaded, such as one saved in an older format.  The copy's
+        // name, <file>.min<N>.dawg, records how the list was normalized, so
+        // copies compiled from the raw lines, or with another minimum word
+        // length, are never picked up.
+        private DictInterface loadDawg(Path file) throws IOException {
+            if (file.toString().endsWith(".dawg")) {
+                return DawgDictionary.load(file);
+            }
+            Path compiled = Paths.get(file + ".min" + BoggleGame.MIN_WORD_LENGTH + ".dawg");
+            if (Files.exists(compiled)
+                    && Files.getLastModifiedTime(compiled).compareTo(Files.getLastModifiedTime(file)) >= 0) {
+                try {
+                    return DawgDictionary.load(compiled);
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("Rebuilding " + compiled + ": " + e.getMessage());
+                }
+            }
+            DawgDictionary dictionary = DawgDictionary.build(
+                    DictionaryLoader.readNormalizedWords(file, BoggleGame.MIN_WORD_LENGTH));
+            try {
+                dictionary.save(compiled);
+            } catch (IOException e) {
+                System.out.println("Could not save " + compiled + ": " + e.getMessage());
+            }
+            return dictionary;
         }
 
     }
@@ -113,11 +192,13 @@ public class Main {
 
         @Override
         public void handle() {
-            if (boggleBoard == null || D == null) {
+            if (boggleBoard == null || dictionaries.current() == null) {
                 System.out.println("Please generate a board and load a dictionary first!");
             } else {
-                int words = boggleGame.countWords(boggleBoard, D);
-                System.out.println("There are " + words + " possible words");
+                try (DictionaryRegistry.Lease lease = dictionaries.acquire()) {
+                    int words = boggleGame.countWords(boggleBoard, lease.dictionary());
+                    System.out.println("There are " + words + " possible words");
+                }
             }
         }
 
@@ -132,12 +213,14 @@ public class Main {
 
         @Override
         public void handle() {
-            if (boggleBoard == null || D == null) {
+            if (boggleBoard == null || dictionaries.current() == null) {
                 System.out.println("Please generate a board and load a dictionary first!");
             } else {
                 int length = program.readInteger("Please enter the required word length: ");
-                int words = boggleGame.countWordsOfCertainLength(boggleBoard, D, length);
-                System.out.println("There are " + words + " possible words of length " + length);
+                try (DictionaryRegistry.Lease lease = dictionaries.acquire()) {
+                    int words = boggleGame.countWordsOfCertainLength(boggleBoard, lease.dictionary(), length);
+                    System.out.println("There are " + words + " possible words of length " + length);
+                }
             }
         }
 
@@ -152,11 +235,14 @@ public class Main {
 
         @Override
         public void handle() {
-            if (D == null) {
+            if (dictionaries.current() == null) {
                 System.out.println("Please load a dictionary first!");
             } else {
                 String word = program.readString("Please enter a word to check: ");
-                boolean check = boggleGame.isWordInDictionary(D, word);
+                boolean check;
+                try (DictionaryRegistry.Lease lease = dictionaries.acquire()) {
+                    check = boggleGame.isWordInDictionary(lease.dictionary(), word);
+                }
                 if (check) {
                     System.out.println(word + " exists in the dictionary.");
                 } else {
@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.function.Consumer;
 /** A class that provides a sorted array-based implementation of 
  * DictInterface. You may use either or both versions of the searchPrefix method, 
  * depending upon how you design your algorithm.  Read over the code and make
@@ -12,10 +13,24 @@ public class MyDictionary implements DictInterface
 {
 	// Store Strings in an ArrayList
 	private ArrayList<String> list;
+	// Whether searchPrefix uses binary search instead of a linear scan
+	private boolean binarySearch;
+	// Length of the longest String added
+	private int maxWordLength;
 
 	public MyDictionary()
+	{
+		this(false);
+	}
+
+	// With binarySearch set, searchPrefix finds the key with a binary search
+	// of the sorted list (O(log n) string comparisons) instead of scanning
+	// the list from the start.  Both modes give the same answers; the
+	// linear mode is kept so the two can be compared.
+	public MyDictionary(boolean binarySearch)
 	{
 		list = new ArrayList<String>();
+		this.binarySearch = binarySearch;
 	}
 
 	// Add new String to end of list.  If String should come before
@@ -25,6 +40,7 @@ public class MyDictionary implements DictInterface
 	public boolean add(String s)
 	{
 		boolean ans = list.add(s);
+		maxWordLength = Math.max(maxWordLength, s.length());
 		if (list.size() > 1)
 		{
 			String prevLast = list.get(list.size()-2);
@@ -34,6 +50,28 @@ public class MyDictionary implements DictInterface
 		return ans;
 	}
 
+	// Add many Strings at once.  Rather than sorting each time a String
+	// arrives out of order, append them all, sort the list once and then
+	// remove duplicates (which are next to each other after sorting).
+	public boolean addAll(Collection<String> words)
+	{
+		int oldSize = list.size();
+		list.addAll(words);
+		for (String s : words)
+			maxWordLength = Math.max(maxWordLength, s.length());
+		Collections.sort(list);
+		int n = 0;
+		for (int i = 0; i < list.size(); i++)
+		{
+			String s = list.get(i);
+			if (n == 0 || !s.equals(list.get(n-1)))
+				list.set(n++, s);
+		}
+		list.subList(n, list.size()).clear();
+		list.trimToSize();
+		return list.size() != oldSize;
+	}
+
 	// Implement the searchPrefix method as described in the
 	// DictInterface class.
 	public int searchPrefix(StringBuilder s)
@@ -43,6 +81,9 @@ public class MyDictionary implements DictInterface
 
 	public int searchPrefix(StringBuilder s, int start, int end)
 	{
+		if (binarySearch)
+			return binarySearchPrefix(s, start, end);
+
 		int status = 0;
 		boolean doneIn, doneOut, currTest, prefix, word;
 		String curr;
@@ -101,4 +142,175 @@ public class MyDictionary implements DictInterface
 		else if (prefix) return 1;
 		else return 0;
 	}
+
+	// Find the first String in the list that is not less than the key, then
+	// look at it and the String after it.  The key is a word if the first
+	// one is equal to it and a prefix if either one is longer and starts
+	// with it.
+	private int binarySearchPrefix(StringBuilder s, int start, int end)
+	{
+		int keyLength = end - start + 1;
+		if (keyLength <= 0)
+			return 0;
+
+		int lo = 0, hi = list.size();
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (compareToKey(list.get(mid), s, start, keyLength) < 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		boolean word = false, prefix = false;
+		// Skip over duplicates of the key, if any, to reach the neighbor
+		while (lo < list.size() && list.get(lo).length() == keyLength
+				&& compareToKey(list.get(lo), s, start, keyLength) == 0)
+		{
+			word = true;
+			lo++;
+		}
+		if (lo < list.size() && list.get(lo).length() > keyLength
+				&& compareToKey(list.get(lo), s, start, keyLength) == 0)
+			prefix = true;
+
+		if (prefix && word) return 3;
+		else if (word) return 2;
+		else if (prefix) return 1;
+		else return 0;
+	}
+
+	// Compare the first keyLength characters of curr (or all of it, if it is
+	// shorter) with the key s[start..start+keyLength-1].  Returns 0 if curr
+	// starts with the key.
+	private static int compareToKey(String curr, StringBuilder s, int start, int keyLength)
+	{
+		int n = Math.min(curr.length(), keyLength);
+		for (int i = 0; i < n; i++)
+		{
+			char k = s.charAt(start + i);
+			if (curr.charAt(i) != k)
+				return curr.charAt(i) - k;
+		}
+		return (curr.length() < keyLength) ? -1 : 0;
+	}
+
+	// A handle for a prefix records the index of the first word in the list
+	// that starts with the prefix, the length of the prefix and its status
+	// code.  Since the list is sorted, all words with the prefix follow that
+	// word, so stepping only needs to binary search the rest of the list.
+	private static final int DEPTH_BITS = 16;
+	private static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+	public long root()
+	{
+		if (list.isEmpty())
+			return 0;
+		return handle(0, 0, 1);
+	}
+
+	public long step(long handle, char c)
+	{
+		if (DictInterface.status(handle) == 0)
+			return 0;
+		int first = (int) (handle >>> (DEPTH_BITS + 2));
+		int depth = (int) (handle >>> 2) & MAX_DEPTH;
+		if (depth == MAX_DEPTH)
+			return 0;
+		String base = list.get(first);
+
+		// Find the first word that is not less than the prefix plus c
+		int lo = first, hi = list.size();
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (compareToKey(list.get(mid), base, depth, c) < 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		if (lo == list.size() || !startsWithKey(list.get(lo), base, depth, c))
+			return 0;
+
+		// The first match is the word itself if it has the same length as
+		// the key; skip over any duplicates of it to see if a longer word
+		// starts with the key as well.
+		int next = lo;
+		boolean word = list.get(lo).length() == depth + 1;
+		if (word)
+		{
+			while (next < list.size() && list.get(next).length() == depth + 1
+					&& startsWithKey(list.get(next), base, depth, c))
+				next++;
+		}
+		boolean prefix = next < list.size() && startsWithKey(list.get(next), base, depth, c);
+		int status = (prefix && word) ? 3 : word ? 2 : 1;
+		return handle(lo, depth + 1, status);
+	}
+
+	// A word is identified by its index in the list.  A handle whose
+	// status says it is a word points at the word itself, as it is the
+	// first String in the list that starts with it.
+	public int wordId(long handle)
+	{
+		return (int) (handle >>> (DEPTH_BITS + 2));
+	}
+
+	public int wordIdLimit()
+	{
+		return list.size();
+	}
+
+	// Duplicates added one at a time with add() are next to each other in
+	// the sorted list, so they are easy to skip
+	public int size()
+	{
+		int count = 0;
+		for (int i = 0; i < list.size(); i++)
+		{
+			if (i == 0 || !list.get(i).equals(list.get(i-1)))
+				count++;
+		}
+		return count;
+	}
+
+	public int maxWordLength()
+	{
+		return maxWordLength;
+	}
+
+	public void forEachWord(Consumer<CharSequence> action)
+	{
+		for (int i = 0; i < list.size(); i++)
+		{
+			if (i == 0 || !list.get(i).equals(list.get(i-1)))
+				action.accept(list.get(i));
+		}
+	}
+
+	private static long handle(int first, int depth, int status)
+	{
+		return ((long) first << (DEPTH_BITS + 2)) | ((long) depth << 2) | status;
+	}
+
+	// Compare curr with the key made of the first depth characters of base
+	// followed by c, without building the key as a String
+	private static int compareToKey(String curr, String base, int depth, char c)
+	{
+		int n = Math.min(curr.length(), depth + 1);
+		for (int i = 0; i < n; i++)
+		{
+			char k = (i < depth) ? base.charAt(i) : c;
+			if (curr.charAt(i) != k)
+				return curr.charAt(i) - k;
+		}
+		return curr.length() - (depth + 1);
+	}
+
+	private static boolean startsWithKey(String curr, String base, int depth, char c)
+	{
+		return curr.length() > depth && curr.charAt(depth) == c
+				&& curr.regionMatches(0, base, 0, depth);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+import java.util.SplittableRandom;
+
+/**
+ * A Boggle board of letters A to Z packed at five bits per cell, for boards
+ * too big to keep as char[][] or as a whole PreparedBoard. A 1000x1000 board
+ * takes about 625 KB here, against 2 MB as char[][] and over 40 MB prepared.
+ * Cells are numbered row by row, as in PreparedBoard, and twelve cells share
+ * each long.
+ *
+ * A PackedBoard is not searched directly: TiledSolver prepares one window of
+ * it at a time with prepare(). A board can be read from several threads at
+ * once, but must not be changed while it is being read.
+ */
+public class PackedBoard {
+    private static final int BITS = 5;
+    private static final int CELLS_PER_LONG = 64 / BITS;
+    private static final long MASK = (1L << BITS) - 1;
+
+    private final int rows;
+    private final int cols;
+    private final long[] packed;
+
+    /**
+     * Creates a board with every cell holding A.
+     *
+     * @param rows The number of rows. Must not be negative.
+     * @param cols The number of columns. Must not be negative.
+     */
+    public PackedBoard(int rows, int cols) {
+        if (rows < 0 || cols < 0 || ((long) rows * cols + CELLS_PER_LONG - 1) / CELLS_PER_LONG > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot make a board of " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.packed = new long[(int) (((long) rows * cols + CELLS_PER_LONG - 1) / CELLS_PER_LONG)];
+    }
+
+    /**
+     * Packs a board.
+     *
+     * @param boggleBoard The 2D array representing the Boggle board. Every row must have
+     *                    the same length, and every cell must hold a letter from A to Z
+     *                    in either case.
+     * @return The packed copy of the board.
+     */
+    public static PackedBoard of(char[][] boggleBoard) {
+        int rows = boggleBoard.length;
+        int cols = rows == 0 ? 0 : boggleBoard[0].length;
+        PackedBoard board = new PackedBoard(rows, cols);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                board.setLetter(row, col, boggleBoard[row][col]);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Fills a board with letters drawn uniformly from A to Z, as
+     * UniformBoardGenerator does, without ever building it as char[][].
+     * The same size and seed always give the same board.
+     *
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     * @param seed The seed to draw the letters from.
+     * @return The new board.
+     */
+    public static PackedBoard random(int rows, int cols, long seed) {
+        PackedBoard board = new PackedBoard(rows, cols);
+        SplittableRandom random = new SplittableRandom(seed);
+        long cellCount = (long) rows * cols;
+        for (long cell = 0; cell < cellCount; cell++) {
+            board.set(cell, random.nextInt(26));
+        }
+        return board;
+    }
+
+    /**
+     * @return The number of rows on the board.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns on the board.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The uppercase letter in the cell.
+     */
+    public char letter(int row, int col) {
+        return (char) ('A' + get(cell(row, col)));
+    }
+
+    /**
+     * Changes the letter in one cell.
+     *
+     * @param row    The row of the cell.
+     * @param col    The column of the cell.
+     * @param letter The new letter, from A to Z in either case.
+     */
+    public void setLetter(int row, int col, char letter) {
+        char upper = Character.toUpperCase(letter);
+        if (upper < 'A' || upper > 'Z') {
+            throw new IllegalArgumentException("Not a letter from A to Z: " + letter);
+        }
+        set(cell(row, col), upper - 'A');
+    }
+
+    /**
+     * Copies a rectangle of the board out as a 2D array.
+     *
+     * @param top    The first row of the rectangle.
+     * @param left   The first column of the rectangle.
+     * @param height The number of rows in the rectangle.
+     * @param width  The number of columns in the rectangle.
+     * @return The uppercase letters of the rectangle.
+     */
+    public char[][] window(int top, int left, int height, int width) {
+        if (top < 0 || left < 0 || height < 0 || width < 0 || top + height > rows || left + width > cols) {
+            throw new IndexOutOfBoundsException("Window " + height + "x" + width + " at (" + top + ", " + left
+                    + ") is outside the " + rows + "x" + cols + " board");
+        }
+        char[][] window = new char[height][width];
+        for (int row = 0; row < height; row++) {
+            long cell = (long) (top + row) * cols + left;
+            for (int col = 0; col < width; col++) {
+                window[row][col] = (char) ('A' + get(cell + col));
+            }
+        }
+        return window;
+    }
+
+    /**
+     * Prepares a rectangle of the board for searching. Cell numbers and rows
+     * and columns of the prepared board are relative to the rectangle.
+     *
+     * @param top     The first row of the rectangle.
+     * @param left    The first column of the rectangle.
+     * @param height  The number of rows in the rectangle.
+     * @param width   The number of columns in the rectangle.
+     * @param quTiles True if every Q cell stands for "qu".
+     * @return The prepared rectangle.
+     */
+    public PreparedBoard prepare(int top, int left, int height, int width, boolean quTiles) {
+        return new PreparedBoard(window(top, left, height, width), quTiles);
+    }
+
+    private long cell(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + col + ") is outside the " + rows + "x" + cols
+                    + " board");
+        }
+        return (long) row * cols + col;
+    }
+
+    private int get(long cell) {
+        int shift = (int) (cell % CELLS_PER_LONG) * BITS;
+        return (int) ((packed[(int) (cell / CELLS_PER_LONG)] >>> shift) & MASK);
+    }
+
+    private void set(long cell, int code) {
+        int index = (int) (cell / CELLS_PER_LONG);
+        int shift = (int) (cell % CELLS_PER_LONG) * BITS;
+        packed[index] = (packed[index] & ~(MASK << shift)) | ((long) code << shift);
+    }
+}
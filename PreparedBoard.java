@@ -0,0 +1,189 @@
+import java.util.Arrays;
+
+/**
+ * A Boggle board flattened into arrays for fast searching. Cells are numbered
+ * row by row, so the cell at (row, col) is number row * cols + col. The
+ * letters are stored lowercase, one byte per cell, and the neighbors of every
+ * cell are worked out once up front, so a search never has to check bounds.
+ * The board is also indexed by letter: the cells holding each letter are
+ * listed together, which gives both where a word can start and how many of
+ * each letter the board has.
+ *
+ * A board can be prepared with Qu tiles, as in the dice game: every Q cell
+ * then stands for the two letters "qu", and a word passing through it must
+ * have a u right after the q.
+ *
+ * A PreparedBoard is never changed after it is built and can be shared
+ * between threads.
+ */
+public class PreparedBoard {
+    private final int rows;
+    private final int cols;
+    private final boolean quTiles;
+
+    // Read directly by the solvers in their inner loops
+    final byte[] letters;
+    final int[] neighborStart;
+    final int[] neighbors;
+    // Cells holding ASCII letter c are cellsByLetter[letterStart[c]] up to cellsByLetter[letterStart[c + 1] - 1]
+    final int[] letterStart;
+    final int[] cellsByLetter;
+
+    /**
+     * Prepares a board for searching, with every cell holding one letter.
+     *
+     * @param boggleBoard The 2D array representing the Boggle board. Must not be null,
+     *                    and every row must have the same length. Letters must be ASCII.
+     * @throws IllegalArgumentException If a letter is not ASCII.
+     */
+    public PreparedBoard(char[][] boggleBoard) {
+        this(boggleBoard, false);
+    }
+
+    /**
+     * Prepares a board for searching.
+     *
+     * @param boggleBoard The 2D array representing the Boggle board. Must not be null,
+     *                    and every row must have the same length. Letters must be ASCII.
+     * @param quTiles     True if every Q cell stands for "qu".
+     * @throws IllegalArgumentException If a letter is not ASCII.
+     */
+    public PreparedBoard(char[][] boggleBoard, boolean quTiles) {
+        this.quTiles = quTiles;
+        rows = boggleBoard.length;
+        cols = rows == 0 ? 0 : boggleBoard[0].length;
+        int cellCount = rows * cols;
+
+        letters = new byte[cellCount];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                letters[i * cols + j] = toByte(boggleBoard[i][j]);
+            }
+        }
+
+        // Neighbors of cell c are neighbors[neighborStart[c]] up to neighbors[neighborStart[c + 1] - 1]
+        neighborStart = new int[cellCount + 1];
+        int[] table = new int[cellCount * 8];
+        int n = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                neighborStart[row * cols + col] = n;
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        int newRow = row + i;
+                        int newCol = col + j;
+                        if ((i != 0 || j != 0) && newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols) {
+                            table[n++] = newRow * cols + newCol;
+                        }
+                    }
+                }
+            }
+        }
+        neighborStart[cellCount] = n;
+        neighbors = Arrays.copyOf(table, n);
+
+        letterStart = letterStart(letters);
+        cellsByLetter = cellsByLetter(letters, letterStart);
+    }
+
+    // Copy of base with one letter changed, sharing the neighbor tables
+    private PreparedBoard(PreparedBoard base, int cell, char letter) {
+        rows = base.rows;
+        cols = base.cols;
+        quTiles = base.quTiles;
+        neighborStart = base.neighborStart;
+        neighbors = base.neighbors;
+        letters = base.letters.clone();
+        letters[cell] = toByte(letter);
+        letterStart = letterStart(letters);
+        cellsByLetter = cellsByLetter(letters, letterStart);
+    }
+
+    /**
+     * Makes a board that differs from this one in one cell. Only the letters
+     * and the letter index are copied; the neighbor tables are shared, so
+     * this is much cheaper than preparing the changed board from scratch.
+     *
+     * @param cell   The cell number to change.
+     * @param letter The new letter for the cell. Must be ASCII.
+     * @return The changed board. This board is left as it was.
+     * @throws IllegalArgumentException If the letter is not ASCII.
+     */
+    public PreparedBoard withLetter(int cell, char letter) {
+        return new PreparedBoard(this, cell, letter);
+    }
+
+    // The letter index only has room for ASCII, so anything else would be filed under the wrong letter
+    private static byte toByte(char letter) {
+        char c = Character.toLowerCase(letter);
+        if (c >= 128) {
+            throw new IllegalArgumentException("Board letters must be ASCII: '" + letter + "'");
+        }
+        return (byte) c;
+    }
+
+    // Counting sort of the cells by letter: where each letter's cells start in cellsByLetter
+    private static int[] letterStart(byte[] letters) {
+        int[] letterStart = new int[129];
+        for (byte letter : letters) {
+            letterStart[letter + 1]++;
+        }
+        for (int c = 0; c < 128; c++) {
+            letterStart[c + 1] += letterStart[c];
+        }
+        return letterStart;
+    }
+
+    private static int[] cellsByLetter(byte[] letters, int[] letterStart) {
+        int[] cellsByLetter = new int[letters.length];
+        int[] next = Arrays.copyOf(letterStart, 128);
+        for (int cell = 0; cell < letters.length; cell++) {
+            cellsByLetter[next[letters[cell]]++] = cell;
+        }
+        return cellsByLetter;
+    }
+
+    /**
+     * @return The number of rows on the board.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns on the board.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @return The number of cells on the board.
+     */
+    public int cellCount() {
+        return letters.length;
+    }
+
+    /**
+     * @param cell The cell number.
+     * @return The lowercase letter in the cell.
+     */
+    public char letter(int cell) {
+        return (char) letters[cell];
+    }
+
+    /**
+     * @return True if every Q cell stands for "qu".
+     */
+    public boolean quTiles() {
+        return quTiles;
+    }
+
+    /**
+     * @param c A lowercase letter.
+     * @return The number of cells on the board holding the letter.
+     */
+    public int letterCount(char c) {
+        return c < 128 ? letterStart[c + 1] - letterStart[c] : 0;
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * A board found by a BoardOptimizer, with its score.
+ */
+public class ScoredBoard {
+    public final char[][] board;
+    public final int score;
+
+    public ScoredBoard(char[][] board, int score) {
+        this.board = board;
+        this.score = score;
+    }
+}
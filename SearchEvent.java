@@ -0,0 +1,47 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event for one BoardSolver search, with the same
+ * counts that SolverMetrics totals. Its duration is the wall time of the
+ * search and its thread is the one that searched, or for a parallel or tiled
+ * search the one that started it, so a slow board can be matched with the GC
+ * pauses and CPU samples recorded at the same time.
+ * Searches shorter than the threshold, 100 us unless a recording sets
+ * another, are left out, so that solving thousands of small boards does not
+ * flood the recording. A BoardSolver only creates the event while a
+ * recording has it enabled.
+ */
+@Name("boggle.Search")
+@Label("Boggle Search")
+@Category("Boggle")
+@Description("One BoardSolver search of a board, including every worker of a parallel or tiled search")
+@Threshold("100 us")
+class SearchEvent extends Event {
+    @Label("Cells")
+    long cells;
+
+    @Label("Dictionary Driven")
+    @Description("True if the search went through the dictionary words instead of the board cells")
+    boolean dictionaryDriven;
+
+    @Label("Nodes Expanded")
+    long nodes;
+
+    @Label("Lookups")
+    long lookups;
+
+    @Label("Dead Ends")
+    @Description("Lookups that found neither a word nor a prefix")
+    long deadEnds;
+
+    @Label("Length Prunes")
+    long lengthPrunes;
+
+    @Label("Words Found")
+    long words;
+}
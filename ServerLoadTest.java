@@ -0,0 +1,261 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Puts a BoggleServer under load and reports the throughput and latency
+ * percentiles seen by the clients. Each client plays its own game: it
+ * creates a board, then cycles through counting words, checking a word and
+ * asking for the path of a word, and finally ends the game. The words are
+ * spelled by random walks over the client's board, so they are always on
+ * it but usually not in the dictionary. Clients run on virtual threads when
+ * the JVM has them.
+ *
+ * Run it as a program against a running server:
+ *
+ *   java ServerLoadTest url clients requestsPerClient [size [reloadMillis]]
+ *
+ * or with "local" instead of a url to start a server on dict8.txt in the
+ * same JVM first. With reloadMillis, the dictionary is also reloaded that
+ * often while the clients run, to see what reloads do to the latency.
+ */
+public class ServerLoadTest {
+    private static final int DEFAULT_SIZE = 4;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String baseUrl;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+
+    /**
+     * @param baseUrl The server address, such as http://localhost:8080, without a trailing slash.
+     */
+    public ServerLoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Runs the clients and waits for all of them to finish.
+     *
+     * @param clients           The number of games played at once.
+     * @param requestsPerClient The number of requests each client makes after creating its game.
+     * @param size              The dimension size of each board.
+     * @return The number of requests made, including creating and ending the games.
+     */
+    public long run(int clients, int requestsPerClient, int size) throws InterruptedException {
+        return run(clients, requestsPerClient, size, 0);
+    }
+
+    /**
+     * Runs the clients, reloading the server's dictionary every so often
+     * until they finish.
+     *
+     * @param clients           The number of games played at once.
+     * @param requestsPerClient The number of requests each client makes after creating its game.
+     * @param size              The dimension size of each board.
+     * @param reloadMillis      The time between dictionary reloads, or 0 for none.
+     * @return The number of requests made, including creating and ending the games.
+     */
+    public long run(int clients, int requestsPerClient, int size, long reloadMillis) throws InterruptedException {
+        ExecutorService executor = BoggleServer.newRequestExecutor();
+        Thread reloader = null;
+        if (reloadMillis > 0) {
+            reloader = new Thread(() -> reloadEvery(reloadMillis), "dictionary-reloads");
+            reloader.setDaemon(true);
+            reloader.start();
+        }
+        List<Future<Long>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            long seed = i;
+            futures.add(executor.submit(() -> play(seed, requestsPerClient, size)));
+        }
+        long total = 0;
+        for (Future<Long> future : futures) {
+            try {
+                total += future.get();
+            } catch (ExecutionException e) {
+                errors.incrementAndGet();
+            }
+        }
+        if (reloader != null) {
+            reloader.interrupt();
+            reloader.join();
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    /**
+     * @return The number of dictionary reloads asked for.
+     */
+    public long reloadCount() {
+        return reloads.get();
+    }
+
+    // Asks the server for a reload every reloadMillis until interrupted
+    private void reloadEvery(long reloadMillis) {
+        try {
+            while (true) {
+                Thread.sleep(reloadMillis);
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/dictionary"))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 202) {
+                    reloads.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        } catch (InterruptedException e) {
+            // The clients are done
+        }
+    }
+
+    /**
+     * @return The round-trip time of every request made.
+     */
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * @return The number of requests that failed or got an unexpected status.
+     */
+    public long errorCount() {
+        return errors.get();
+    }
+
+    // One client's game; returns the number of requests made
+    private long play(long seed, int requests, int size) throws IOException, InterruptedException {
+        String created = send("POST", "/games?size=" + size + "&seed=" + seed, 201);
+        if (created == null) {
+            return 1;
+        }
+        String[] lines = created.split("\n");
+        String game = "/games/" + lines[0];
+        char[][] board = new char[size][];
+        for (int row = 0; row < size; row++) {
+            board[row] = lines[row + 1].toCharArray();
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < requests; i++) {
+            switch (i % 3) {
+                case 0:
+                    send("GET", game + "/count", 200);
+                    break;
+                case 1:
+                    send("GET", game + "/check?word=" + randomWord(board, random), 200);
+                    break;
+                default:
+                    send("GET", game + "/path?word=" + randomWord(board, random), 200);
+                    break;
+            }
+        }
+        send("DELETE", game, 200);
+        return requests + 2;
+    }
+
+    // The letters along a random walk of three to six distinct neighboring cells
+    private static String randomWord(char[][] board, SplittableRandom random) {
+        int size = board.length;
+        int length = Math.min(size * size, 3 + random.nextInt(4));
+        boolean[][] used = new boolean[size][size];
+        int row = random.nextInt(size);
+        int col = random.nextInt(size);
+        StringBuilder word = new StringBuilder();
+        word.append(board[row][col]);
+        used[row][col] = true;
+        while (word.length() < length) {
+            int[] next = null;
+            int choices = 0;
+            for (int i = -1; i <= 1; i++) {
+                for (int j = -1; j <= 1; j++) {
+                    int r = row + i;
+                    int c = col + j;
+                    if (r >= 0 && r < size && c >= 0 && c < size && !used[r][c]
+                            && random.nextInt(++choices) == 0) {
+                        next = new int[]{r, c};
+                    }
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            row = next[0];
+            col = next[1];
+            word.append(board[row][col]);
+            used[row][col] = true;
+        }
+        return URLEncoder.encode(word.toString(), StandardCharsets.UTF_8);
+    }
+
+    // Sends one request and records its round trip; returns the body, or null on an unexpected status
+    private String send(String method, String path, int expectedStatus) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        latency.record(System.nanoTime() - start);
+        if (response.statusCode() != expectedStatus) {
+            errors.incrementAndGet();
+            return null;
+        }
+        return response.body();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3 || args.length > 5) {
+            System.out.println("Usage: java ServerLoadTest url|local clients requestsPerClient [size [reloadMillis]]");
+            return;
+        }
+        int clients = Integer.parseInt(args[1]);
+        int requests = Integer.parseInt(args[2]);
+        int size = args.length >= 4 ? Integer.parseInt(args[3]) : DEFAULT_SIZE;
+        long reloadMillis = args.length == 5 ? Long.parseLong(args[4]) : 0;
+
+        BoggleServer server = null;
+        String url = args[0];
+        if (url.equals("local")) {
+            DictionaryRegistry dictionaries = DictionaryRegistry.forFile(Paths.get("dict8.txt"));
+            server = new BoggleServer(dictionaries, new UniformBoardGenerator(), 0);
+            server.start();
+            url = "http://localhost:" + server.port();
+        }
+
+        ServerLoadTest test = new ServerLoadTest(url);
+        long start = System.nanoTime();
+        long total = test.run(clients, requests, size, reloadMillis);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        LatencyHistogram latency = test.latency();
+        System.out.printf("%d clients, %d requests in %.2f s: %.1f requests/s, %d errors%n",
+                          clients, total, seconds, total / seconds, test.errorCount());
+        if (reloadMillis > 0) {
+            System.out.println(test.reloadCount() + " dictionary reloads");
+        }
+        System.out.println("client p50=" + latency.percentile(50) + " us, p99=" + latency.percentile(99)
+                + " us, p999=" + latency.percentile(99.9) + " us");
+        if (server != null) {
+            LatencyHistogram handling = server.latency();
+            System.out.println("server p50=" + handling.percentile(50) + " us, p99=" + handling.percentile(99)
+                    + " us, p999=" + handling.percentile(99.9) + " us");
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Totals of what BoardSolver searches do, for finding out why some boards
+ * take much longer than others. A BoardSolver counts into plain fields of its
+ * own while it searches and adds them here once, when the search ends, so
+ * parallel searches never contend on a shared counter. The totals are
+ * LongAdders, which are striped across threads as well.
+ *
+ * The search count, times, length prunes and words found are always kept.
+ * Counting nodes and dictionary lookups costs an increment per step of the
+ * search, about a third of the search time, so those counts are only kept
+ * when the JVM is started with -Dboggle.metrics.nodes=true; otherwise they
+ * read 0 and the JIT leaves the counting out of the search entirely.
+ *
+ * Call registerMBean() to publish the totals over JMX as
+ * boggle:type=SolverMetrics. Each search is also recorded as a SearchEvent in
+ * Java Flight Recorder, when the boggle.Search event is enabled, to line the
+ * searches up with GC and CPU samples. A board searched by several workers,
+ * by BoardSolver.findWordsParallel or TiledSolver, is recorded once, with the
+ * wall time of the whole solve and the counts of all its workers.
+ */
+public class SolverMetrics implements SolverMetricsMBean {
+    /** True if searches count nodes and dictionary lookups, set by the boggle.metrics.nodes property. */
+    public static final boolean COUNT_NODES = Boolean.getBoolean("boggle.metrics.nodes");
+
+    /** The JMX name the metrics are registered under. */
+    public static final String OBJECT_NAME = "boggle:type=SolverMetrics";
+
+    private static final SolverMetrics INSTANCE = new SolverMetrics();
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAccumulator longestSearchNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder[] lookups = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+    private final LongAdder lengthPrunes = new LongAdder();
+    private final LongAdder words = new LongAdder();
+
+    private SolverMetrics() {
+    }
+
+    /**
+     * @return The metrics every BoardSolver adds to.
+     */
+    public static SolverMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, if they are not
+     * registered already.
+     *
+     * @throws IllegalStateException If JMX refuses the registration.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Adds the counts of one finished search.
+     *
+     * @param nanos        The wall time of the search.
+     * @param nodeCount    The DFS nodes expanded.
+     * @param lookupCount  The dictionary lookups, indexed by the status they gave.
+     * @param prunes       The paths dropped by length.
+     * @param wordCount    The words reported.
+     */
+    void record(long nanos, long nodeCount, long[] lookupCount, long prunes, long wordCount) {
+        searches.increment();
+        searchNanos.add(nanos);
+        longestSearchNanos.accumulate(nanos);
+        nodes.add(nodeCount);
+        for (int status = 0; status < lookups.length; status++) {
+            lookups[status].add(lookupCount[status]);
+        }
+        lengthPrunes.add(prunes);
+        words.add(wordCount);
+    }
+
+    @Override
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    @Override
+    public long getSearchTimeMillis() {
+        return searchNanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public long getLongestSearchMicros() {
+        return longestSearchNanos.get() / 1000;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getLookups() {
+        long total = 0;
+        for (LongAdder count : lookups) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getDeadEnds() {
+        return lookups[0].sum();
+    }
+
+    @Override
+    public long getPrefixHits() {
+        return lookups[1].sum();
+    }
+
+    @Override
+    public long getWordHits() {
+        return lookups[2].sum();
+    }
+
+    @Override
+    public long getWordAndPrefixHits() {
+        return lookups[3].sum();
+    }
+
+    @Override
+    public long getLengthPrunes() {
+        return lengthPrunes.sum();
+    }
+
+    @Override
+    public double getDeadEndRate() {
+        long total = getLookups();
+        return total == 0 ? 0 : (double) getDeadEnds() / total;
+    }
+
+    @Override
+    public long getWordsFound() {
+        return words.sum();
+    }
+
+    @Override
+    public void reset() {
+        searches.reset();
+        searchNanos.reset();
+        longestSearchNanos.reset();
+        nodes.reset();
+        for (LongAdder count : lookups) {
+            count.reset();
+        }
+        lengthPrunes.reset();
+        words.reset();
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * The JMX view of SolverMetrics. Counts are totals since the start or the
+ * last reset, over every BoardSolver search on every thread.
+ */
+public interface SolverMetricsMBean {
+
+    /**
+     * @return the number of searches: each findWords, findWordPaths, findAnyWord or similar
+     *         call, with a parallel or tiled search of one board counted once
+     */
+    public long getSearches();
+
+    /**
+     * @return the total wall time spent in searches, in milliseconds
+     */
+    public long getSearchTimeMillis();
+
+    /**
+     * @return the wall time of the longest single search, in microseconds; for a parallel
+     *         or tiled search, from its start to the end of its last worker
+     */
+    public long getLongestSearchMicros();
+
+    /**
+     * @return the number of DFS nodes expanded, i.e. path prefixes visited
+     */
+    public long getNodesExpanded();
+
+    /**
+     * @return the number of dictionary lookups, one per letter added to a path
+     */
+    public long getLookups();
+
+    /**
+     * @return the lookups that gave status 0: not a word or a prefix, so the path was dropped
+     */
+    public long getDeadEnds();
+
+    /**
+     * @return the lookups that gave status 1: a prefix but not a word
+     */
+    public long getPrefixHits();
+
+    /**
+     * @return the lookups that gave status 2: a word but not a prefix
+     */
+    public long getWordHits();
+
+    /**
+     * @return the lookups that gave status 3: both a word and a prefix
+     */
+    public long getWordAndPrefixHits();
+
+    /**
+     * @return the paths dropped because no word starting with them has a wanted length
+     */
+    public long getLengthPrunes();
+
+    /**
+     * @return the fraction of lookups that ended a path, from 0 to 1
+     */
+    public double getDeadEndRate();
+
+    /**
+     * @return the number of words reported, each counted once per search
+     */
+    public long getWordsFound();
+
+    /**
+     * Sets every count back to 0
+     */
+    public void reset();
+}
@@ -0,0 +1,170 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Finds the words on a PackedBoard of any size with memory bounded by the
+ * dictionary and the tile size, not by the board.
+ *
+ * The board is cut into square tiles of start cells. A worker takes one tile
+ * at a time, prepares the tile together with a halo of the cells around it
+ * (as many as a word can reach past the tile's edge, which is one less than
+ * the longest word that can be found), and searches only the paths that start
+ * inside the tile. Every path starting in the tile stays inside the halo, so
+ * together the tiles find exactly the words a search of the whole board
+ * would. Only one prepared window per worker thread is alive at a time.
+ *
+ * Words are passed to a consumer as they are found instead of being
+ * collected. As in BoardSolver.findWordsParallel, the workers share one
+ * atomic bitset of word ids, so each word is reported once no matter how
+ * many tiles it appears in, and the bitset is the only state that grows with
+ * the search: one bit per dictionary word.
+ */
+public class TiledSolver {
+    /** The tile size used when none is given. */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    private TiledSolver() {
+    }
+
+    /**
+     * Same as findWords below, with tiles of DEFAULT_TILE_SIZE.
+     *
+     * @param board      The board to search. Must not be changed during the search.
+     * @param dictionary The dictionary to check against. Must not be changed during the search.
+     * @param minLength  The shortest word length to report.
+     * @param maxLength  The longest word length to report, or BoardSolver.NO_MAX_LENGTH.
+     * @param quTiles    True if every Q cell stands for "qu".
+     * @param pool       The pool to run the search in.
+     * @param consumer   Receives each unique word found. Called from the worker threads, so
+     *                   it must be thread-safe.
+     */
+    public static void findWords(PackedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                                 boolean quTiles, ForkJoinPool pool, Consumer<CharSequence> consumer) {
+        findWords(board, dictionary, minLength, maxLength, quTiles, DEFAULT_TILE_SIZE, pool, consumer);
+    }
+
+    /**
+     * Passes every dictionary word found on the board with a length between
+     * minLength and maxLength (inclusive) to a consumer, once per word. Words
+     * are lowercase. As with BoardSolver.findWords, the CharSequence is only
+     * valid during the call.
+     *
+     * @param board      The board to search. Must not be changed during the search.
+     * @param dictionary The dictionary to check against. Must not be changed during the search.
+     * @param minLength  The shortest word length to report.
+     * @param maxLength  The longest word length to report, or BoardSolver.NO_MAX_LENGTH.
+     * @param quTiles    True if every Q cell stands for "qu".
+     * @param tileSize   The side of the square tiles the start cells are split into.
+     *                   Must be greater than 0.
+     * @param pool       The pool to run the search in.
+     * @param consumer   Receives each unique word found. Called from the worker threads, so
+     *                   it must be thread-safe.
+     */
+    public static void findWords(PackedBoard board, DictInterface dictionary, int minLength, int maxLength,
+                                 boolean quTiles, int tileSize, ForkJoinPool pool,
+                                 Consumer<CharSequence> consumer) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be greater than 0: " + tileSize);
+        }
+        if (board.rows() == 0 || board.cols() == 0) {
+            return;
+        }
+
+        // A path has at most one tile per letter, so it ends at most
+        // longest - 1 cells from where it starts
+        int halo = Math.max(0, Math.min(dictionary.maxWordLength(), maxLength) - 1);
+
+        int tileRows = (board.rows() + tileSize - 1) / tileSize;
+        int tileCols = (board.cols() + tileSize - 1) / tileSize;
+        AtomicLongArray sharedSeen = new AtomicLongArray((dictionary.wordIdLimit() + 63) / 64);
+        // The tiles add their counts to one record for the whole board
+        BoardSolver.SolveCounts counts = new BoardSolver.SolveCounts((long) board.rows() * board.cols());
+        try {
+            pool.invoke(new TileTask(new Search(board, dictionary, minLength, maxLength, quTiles, tileSize, halo,
+                                                tileCols, sharedSeen, counts, consumer),
+                                     0, tileRows * tileCols));
+        } finally {
+            counts.record();
+        }
+    }
+
+    /**
+     * What every tile of one search shares.
+     */
+    private static class Search {
+        final PackedBoard board;
+        final DictInterface dictionary;
+        final int minLength;
+        final int maxLength;
+        final boolean quTiles;
+        final int tileSize;
+        final int halo;
+        final int tileCols;
+        final AtomicLongArray sharedSeen;
+        final BoardSolver.SolveCounts counts;
+        final Consumer<CharSequence> consumer;
+
+        Search(PackedBoard board, DictInterface dictionary, int minLength, int maxLength, boolean quTiles,
+               int tileSize, int halo, int tileCols, AtomicLongArray sharedSeen, BoardSolver.SolveCounts counts,
+               Consumer<CharSequence> consumer) {
+            this.board = board;
+            this.dictionary = dictionary;
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.quTiles = quTiles;
+            this.tileSize = tileSize;
+            this.halo = halo;
+            this.tileCols = tileCols;
+            this.sharedSeen = sharedSeen;
+            this.counts = counts;
+            this.consumer = consumer;
+        }
+
+        void searchTile(int tile) {
+            int top = (tile / tileCols) * tileSize;
+            int left = (tile % tileCols) * tileSize;
+            int height = Math.min(tileSize, board.rows() - top);
+            int width = Math.min(tileSize, board.cols() - left);
+
+            // The tile plus its halo, cut off at the board's edges
+            int windowTop = Math.max(0, top - halo);
+            int windowLeft = Math.max(0, left - halo);
+            int windowBottom = (int) Math.min(board.rows(), (long) top + height + halo);
+            int windowRight = (int) Math.min(board.cols(), (long) left + width + halo);
+            PreparedBoard window = board.prepare(windowTop, windowLeft, windowBottom - windowTop,
+                                                 windowRight - windowLeft, quTiles);
+
+            BoardSolver.forCurrentThread().findWordsFrom(window, dictionary, minLength, maxLength,
+                                                         top - windowTop, left - windowLeft, height, width,
+                                                         sharedSeen, counts, consumer);
+        }
+    }
+
+    /**
+     * Searches a range of tiles, splitting it in half down to single tiles.
+     */
+    @SuppressWarnings("serial")
+    private static class TileTask extends RecursiveAction {
+        private final Search search;
+        private final int firstTile;
+        private final int endTile;
+
+        TileTask(Search search, int firstTile, int endTile) {
+            this.search = search;
+            this.firstTile = firstTile;
+            this.endTile = endTile;
+        }
+
+        @Override
+        protected void compute() {
+            if (endTile - firstTile == 1) {
+                search.searchTile(firstTile);
+                return;
+            }
+            int middle = (firstTile + endTile) >>> 1;
+            invokeAll(new TileTask(search, firstTile, middle), new TileTask(search, middle, endTile));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+import java.util.*;
+import java.util.function.Consumer;
+/** A trie-based implementation of DictInterface. Each call to searchPrefix
+ * walks down the trie one character of the key at a time, so a lookup costs
+ * O(key length) no matter how many words are in the dictionary (compare with
+ * MyDictionary, which scans its whole sorted list).
+ *
+ * The nodes are kept in parallel arrays and referenced by index rather than
+ * as separate objects.  The children of a node form a linked list through
+ * the nextSibling array, starting at firstChild.  Node 0 is the root and
+ * represents the empty prefix.
+ */
+public class TrieDictionary implements DictInterface
+{
+	private static final int NONE = -1;
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private int[] firstChild;
+	private int[] nextSibling;
+	private char[] label;
+	private boolean[] isWord;
+	// Fewest and most characters that follow each node's prefix in a word
+	private int[] shortest;
+	private int[] longest;
+	private int nodeCount;
+	private int wordCount;
+
+	public TrieDictionary()
+	{
+		firstChild = new int[INITIAL_CAPACITY];
+		nextSibling = new int[INITIAL_CAPACITY];
+		label = new char[INITIAL_CAPACITY];
+		isWord = new boolean[INITIAL_CAPACITY];
+		shortest = new int[INITIAL_CAPACITY];
+		longest = new int[INITIAL_CAPACITY];
+		nodeCount = 1;
+		shortest[0] = Integer.MAX_VALUE;
+		firstChild[0] = NONE;
+		nextSibling[0] = NONE;
+	}
+
+	// Walk down the trie, creating any missing nodes along the way, and
+	// mark the last node as the end of a word.  Every node on the way
+	// learns how many characters of the word are left after it.  Returns
+	// false if the word was already in the dictionary.
+	public boolean add(String s)
+	{
+		int node = 0;
+		remaining(node, s.length());
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			int next = child(node, c);
+			if (next == NONE)
+				next = newChild(node, c);
+			node = next;
+			remaining(node, s.length() - i - 1);
+		}
+		if (isWord[node])
+			return false;
+		isWord[node] = true;
+		wordCount++;
+		return true;
+	}
+
+	public int searchPrefix(StringBuilder s)
+	{
+		return searchPrefix(s, 0, s.length()-1);
+	}
+
+	public int searchPrefix(StringBuilder s, int start, int end)
+	{
+		// The empty key is neither a word nor a prefix, as in MyDictionary
+		if (end < start)
+			return 0;
+
+		int node = 0;
+		for (int j = start; j <= end; j++)
+		{
+			node = child(node, s.charAt(j));
+			if (node == NONE)
+				return 0;
+		}
+		return status(node);
+	}
+
+	// A handle is the index of the node for the prefix, shifted left to
+	// make room for the status code in the low two bits.
+	public long root()
+	{
+		return handle(0);
+	}
+
+	public long step(long handle, char c)
+	{
+		if (DictInterface.status(handle) == 0)
+			return 0;
+		int node = child((int) (handle >>> 2), c);
+		if (node == NONE)
+			return 0;
+		return handle(node);
+	}
+
+	// A word is identified by the index of the node it ends at
+	public int wordId(long handle)
+	{
+		return (int) (handle >>> 2);
+	}
+
+	public int wordIdLimit()
+	{
+		return nodeCount;
+	}
+
+	public int size()
+	{
+		return wordCount;
+	}
+
+	public int maxWordLength()
+	{
+		return longest[0];
+	}
+
+	public int minRemaining(long handle)
+	{
+		return shortest[(int) (handle >>> 2)];
+	}
+
+	public int maxRemaining(long handle)
+	{
+		return longest[(int) (handle >>> 2)];
+	}
+
+	public void forEachWord(Consumer<CharSequence> action)
+	{
+		forEachWord(0, new StringBuilder(), action);
+	}
+
+	// Visit the words below node; word holds the prefix that node stands for
+	private void forEachWord(int node, StringBuilder word, Consumer<CharSequence> action)
+	{
+		if (isWord[node])
+			action.accept(word);
+		for (int k = firstChild[node]; k != NONE; k = nextSibling[k])
+		{
+			word.append(label[k]);
+			forEachWord(k, word, action);
+			word.setLength(word.length() - 1);
+		}
+	}
+
+	private void remaining(int node, int left)
+	{
+		if (left < shortest[node])
+			shortest[node] = left;
+		if (left > longest[node])
+			longest[node] = left;
+	}
+
+	private long handle(int node)
+	{
+		return ((long) node << 2) | status(node);
+	}
+
+	// Status code of the prefix ending at node, as described in DictInterface
+	private int status(int node)
+	{
+		boolean prefix = firstChild[node] != NONE;
+		boolean word = isWord[node];
+		if (prefix && word) return 3;
+		else if (word) return 2;
+		else if (prefix) return 1;
+		else return 0;
+	}
+
+	// Find the child of node labelled c, or NONE if there is no such child
+	private int child(int node, char c)
+	{
+		for (int k = firstChild[node]; k != NONE; k = nextSibling[k])
+		{
+			if (label[k] == c)
+				return k;
+		}
+		return NONE;
+	}
+
+	private int newChild(int parent, char c)
+	{
+		if (nodeCount == label.length)
+			grow();
+		int k = nodeCount++;
+		label[k] = c;
+		isWord[k] = false;
+		shortest[k] = Integer.MAX_VALUE;
+		longest[k] = 0;
+		firstChild[k] = NONE;
+		nextSibling[k] = firstChild[parent];
+		firstChild[parent] = k;
+		return k;
+	}
+
+	private void grow()
+	{
+		int capacity = label.length * 2;
+		firstChild = Arrays.copyOf(firstChild, capacity);
+		nextSibling = Arrays.copyOf(nextSibling, capacity);
+		label = Arrays.copyOf(label, capacity);
+		isWord = Arrays.copyOf(isWord, capacity);
+		shortest = Arrays.copyOf(shortest, capacity);
+		longest = Arrays.copyOf(longest, capacity);
+	}
+}
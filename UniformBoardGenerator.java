@@ -0,0 +1,19 @@
+import java.util.SplittableRandom;
+
+/**
+ * Draws every letter from A to Z with the same chance. This is how
+ * BoggleGame has always generated boards, and it is still the default.
+ */
+public class UniformBoardGenerator implements BoardGenerator {
+
+    @Override
+    public char[][] generate(int size, SplittableRandom random) {
+        char[][] board = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                board[i][j] = (char) ('A' + random.nextInt(26));
+            }
+        }
+        return board;
+    }
+}
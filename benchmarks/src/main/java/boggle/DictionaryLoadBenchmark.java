@@ -0,0 +1,43 @@
+package boggle;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to build each type of dictionary from the words of dict8.txt, which
+ * are read once up front so that file reading is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictionaryLoadBenchmark {
+    @Param({Fixtures.SORTED, Fixtures.BINARY, Fixtures.TRIE, Fixtures.DAWG})
+    public String type;
+
+    private List<String> words;
+
+    @Setup
+    public void setUp() {
+        words = Fixtures.words();
+    }
+
+    @Benchmark
+    public DictInterface build() {
+        return Fixtures.dictionary(type, words);
+    }
+}
@@ -0,0 +1,118 @@
+package boggle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Inputs shared by the benchmarks: the dict8.txt word list, dictionaries of
+ * every type, and boards generated from a fixed seed so that every run
+ * measures the same boards.
+ */
+final class Fixtures {
+    /** The dictionary types, named as in the Main menu. */
+    static final String SORTED = "sorted";
+    static final String BINARY = "binary";
+    static final String TRIE = "trie";
+    static final String DAWG = "dawg";
+
+    /** The board generation strategies. */
+    static final String UNIFORM = "uniform";
+    static final String DICE = "dice";
+    static final String FREQUENCY = "frequency";
+
+    private static final BoggleGame GAME = new BoggleGame();
+
+    private Fixtures() {
+    }
+
+    /**
+     * Reads dict8.txt, which is packaged with the benchmarks, the same way
+     * Main reads a word list: trimmed, lowercased, without words shorter than
+     * BoggleGame.MIN_WORD_LENGTH or with characters other than letters,
+     * sorted and without duplicates. DictionaryLoader maps a file, so the
+     * resource is copied to a temporary one first.
+     *
+     * @return The words of dict8.txt.
+     */
+    static List<String> words() {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/dict8.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("dict8.txt is missing from the benchmark jar");
+            }
+            Path file = Files.createTempFile("dict8", ".txt");
+            try {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+                return DictionaryLoader.readNormalizedWords(file, BoggleGame.MIN_WORD_LENGTH);
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds a dictionary of a type the way Main does.
+     *
+     * @param type  One of SORTED, BINARY, TRIE or DAWG.
+     * @param words The words to put in the dictionary.
+     * @return The new dictionary.
+     */
+    static DictInterface dictionary(String type, List<String> words) {
+        DictInterface dictionary;
+        switch (type) {
+            case SORTED:
+                dictionary = new MyDictionary();
+                break;
+            case BINARY:
+                dictionary = new MyDictionary(true);
+                break;
+            case TRIE:
+                dictionary = new TrieDictionary();
+                break;
+            case DAWG:
+                return DawgDictionary.build(words);
+            default:
+                throw new IllegalArgumentException("Unknown dictionary type: " + type);
+        }
+        dictionary.addAll(words);
+        return dictionary;
+    }
+
+    /**
+     * Creates a game whose boards come from a generation strategy. With dice,
+     * the classic set is used for boards up to 4x4 and the Big Boggle set above.
+     *
+     * @param generator One of UNIFORM, DICE or FREQUENCY.
+     * @param size      The dimension size of the boards the game will generate.
+     * @return The game.
+     */
+    static BoggleGame game(String generator, int size) {
+        switch (generator) {
+            case UNIFORM:
+                return new BoggleGame();
+            case DICE:
+                return new BoggleGame(null, size <= 4 ? DiceBoardGenerator.classic() : DiceBoardGenerator.big());
+            case FREQUENCY:
+                return new BoggleGame(null, new FrequencyBoardGenerator(true));
+            default:
+                throw new IllegalArgumentException("Unknown generator: " + generator);
+        }
+    }
+
+    /**
+     * Generates the same board for the same size and seed on every run.
+     *
+     * @param size The dimension size of the board.
+     * @param seed The random seed.
+     * @return The board.
+     */
+    static char[][] board(int size, long seed) {
+        return GAME.generateBoggleBoard(size, seed);
+    }
+}
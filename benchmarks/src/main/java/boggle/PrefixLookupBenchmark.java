@@ -0,0 +1,89 @@
+package boggle;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one searchPrefix call. The queries are random paths of one to
+ * eight letters on seeded 4x4 boards, which is what the original board
+ * search asks the dictionary, so they have the same mix of hits and misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixLookupBenchmark {
+    private static final int QUERIES = 1024;
+    private static final int MAX_QUERY_LENGTH = 8;
+
+    @Param({Fixtures.SORTED, Fixtures.BINARY, Fixtures.TRIE, Fixtures.DAWG})
+    public String type;
+
+    private DictInterface dictionary;
+    private StringBuilder[] queries;
+
+    @Setup
+    public void setUp() {
+        List<String> words = Fixtures.words();
+        dictionary = Fixtures.dictionary(type, words);
+
+        Random random = new Random(42);
+        queries = new StringBuilder[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            PreparedBoard board = new PreparedBoard(Fixtures.board(4, i / 16));
+            queries[i] = randomPath(board, 1 + random.nextInt(MAX_QUERY_LENGTH), random);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int searchPrefix() {
+        int sum = 0;
+        for (StringBuilder query : queries) {
+            sum += dictionary.searchPrefix(query);
+        }
+        return sum;
+    }
+
+    // The letters along a random walk of up to length cells, never visiting a cell twice
+    private static StringBuilder randomPath(PreparedBoard board, int length, Random random) {
+        StringBuilder path = new StringBuilder();
+        boolean[] visited = new boolean[board.cellCount()];
+        int cell = random.nextInt(board.cellCount());
+        while (true) {
+            visited[cell] = true;
+            path.append(board.letter(cell));
+            if (path.length() == length) {
+                return path;
+            }
+            int next = -1;
+            int choices = 0;
+            for (int k = board.neighborStart[cell]; k < board.neighborStart[cell + 1]; k++) {
+                int neighbor = board.neighbors[k];
+                if (!visited[neighbor] && random.nextInt(++choices) == 0) {
+                    next = neighbor;
+                }
+            }
+            if (next < 0) {
+                return path;
+            }
+            cell = next;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package boggle;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Board solving through BoggleGame for every dictionary type, on boards
+ * generated from a fixed seed with each generation strategy. Dice and
+ * letter-frequency boards hold more words than uniform ones, so they make the
+ * search go deeper, as real boards do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({Fixtures.SORTED, Fixtures.BINARY, Fixtures.TRIE, Fixtures.DAWG})
+    public String type;
+
+    @Param({"4", "8", "16", "32", "50"})
+    public int size;
+
+    @Param({"5"})
+    public int wordLength;
+
+    @Param({Fixtures.UNIFORM, Fixtures.DICE, Fixtures.FREQUENCY})
+    public String generator;
+
+    private BoggleGame game;
+    private DictInterface dictionary;
+    private char[][] board;
+
+    @Setup
+    public void setUp() {
+        dictionary = Fixtures.dictionary(type, Fixtures.words());
+        game = Fixtures.game(generator, size);
+        board = game.generateBoggleBoard(size, size);
+    }
+
+    @Benchmark
+    public int countWords() {
+        return game.countWords(board, dictionary);
+    }
+
+    @Benchmark
+    public int countWordsOfCertainLength() {
+        return game.countWordsOfCertainLength(board, dictionary, wordLength);
+    }
+
+    @Benchmark
+    public String anyWord() {
+        return game.anyWord(board, dictionary);
+    }
+}
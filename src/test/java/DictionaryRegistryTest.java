@@ -0,0 +1,213 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the lease protocol of DictionaryRegistry: a replaced dictionary is
+ * retired only once every lease on it is closed, and a lease never sees a
+ * retired one, also while dictionaries are published under readers.
+ */
+class DictionaryRegistryTest {
+
+    @Test
+    void heldLeaseDelaysRetirement() {
+        DictInterface first = dictionary("first");
+        DictionaryRegistry registry = new DictionaryRegistry(first);
+        DictionaryRegistry.Lease lease = registry.acquire();
+
+        CompletableFuture<Void> drained = registry.publish(dictionary("second"));
+        assertFalse(drained.isDone());
+        assertSame(first, lease.dictionary());
+        assertEquals(1, lease.version());
+        assertEquals(2, registry.version());
+
+        lease.close();
+        assertTrue(drained.isDone());
+        // Closing again must not count the lease twice
+        lease.close();
+    }
+
+    @Test
+    void unleasedDictionaryRetiresAtOnce() {
+        DictionaryRegistry registry = new DictionaryRegistry(dictionary("first"));
+        try (DictionaryRegistry.Lease lease = registry.acquire()) {
+            assertEquals(1, lease.version());
+        }
+        assertTrue(registry.publish(dictionary("second")).isDone());
+    }
+
+    @Test
+    void leaseTakenAfterPublishSeesNewDictionary() {
+        DictionaryRegistry registry = new DictionaryRegistry(dictionary("first"));
+        DictInterface second = dictionary("second");
+        registry.publish(second);
+        try (DictionaryRegistry.Lease lease = registry.acquire()) {
+            assertSame(second, lease.dictionary());
+            assertEquals(2, lease.version());
+        }
+    }
+
+    @Test
+    void emptyRegistryLeasesNothing() {
+        DictionaryRegistry registry = new DictionaryRegistry();
+        assertNull(registry.current());
+        assertEquals(0, registry.version());
+        try (DictionaryRegistry.Lease lease = registry.acquire()) {
+            assertNull(lease.dictionary());
+        }
+        assertThrows(IllegalStateException.class, registry::reload);
+    }
+
+    @Test
+    void leasesNeverSeeRetiredDictionaries() throws InterruptedException {
+        DictInterface[] dictionaries = new DictInterface[4];
+        for (int i = 0; i < dictionaries.length; i++) {
+            dictionaries[i] = dictionary("word" + i);
+        }
+        DictionaryRegistry registry = new DictionaryRegistry(dictionaries[0]);
+        Map<Long, DictInterface> published = new ConcurrentHashMap<>();
+        Map<Long, CompletableFuture<Void>> retired = new ConcurrentHashMap<>();
+        Map<Long, AtomicInteger> open = new ConcurrentHashMap<>();
+        published.put(1L, dictionaries[0]);
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicBoolean stop = new AtomicBoolean();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread reader = new Thread(() -> {
+                while (!stop.get()) {
+                    try (DictionaryRegistry.Lease lease = registry.acquire()) {
+                        long version = lease.version();
+                        AtomicInteger count = open.computeIfAbsent(version, v -> new AtomicInteger());
+                        count.incrementAndGet();
+                        CompletableFuture<Void> drained = retired.get(version);
+                        if (drained != null && drained.isDone()) {
+                            failure.compareAndSet(null, "leased version " + version + " after it was retired");
+                        }
+                        DictInterface expected = published.get(version);
+                        if (expected != null && expected != lease.dictionary()) {
+                            failure.compareAndSet(null, "version " + version + " leased the wrong dictionary");
+                        }
+                        count.decrementAndGet();
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        List<CompletableFuture<Void>> all = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            DictInterface next = dictionaries[i % dictionaries.length];
+            // Nothing else publishes, so the replaced version is the one before
+            long replaced = registry.version();
+            CompletableFuture<Void> drained = registry.publish(next);
+            published.put(replaced + 1, next);
+            retired.put(replaced, drained);
+            drained.thenRun(() -> {
+                AtomicInteger count = open.get(replaced);
+                int leases = count == null ? 0 : count.get();
+                if (leases != 0) {
+                    failure.compareAndSet(null, "retired version " + replaced + " with " + leases + " leases open");
+                }
+            });
+            all.add(drained);
+        }
+        stop.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        for (CompletableFuture<Void> drained : all) {
+            assertTrue(drained.isDone(), "a replaced version was never retired");
+        }
+    }
+
+    @Test
+    void failedReloadKeepsCurrentDictionary() {
+        DictInterface first = dictionary("first");
+        DictionaryRegistry registry = new DictionaryRegistry(first);
+        CompletableFuture<Long> reload = registry.reload(() -> {
+            throw new IOException("unreadable");
+        });
+
+        CompletionException e = assertThrows(CompletionException.class, reload::join);
+        assertInstanceOf(IOException.class, e.getCause());
+        assertSame(first, registry.current());
+        assertEquals(1, registry.version());
+    }
+
+    @Test
+    void reloadsPublishInOrder() {
+        DictInterface second = dictionary("second");
+        DictInterface third = dictionary("third");
+        DictionaryRegistry registry = new DictionaryRegistry(dictionary("first"));
+
+        CompletableFuture<Long> slow = registry.reload(() -> {
+            Thread.sleep(50);
+            return second;
+        });
+        CompletableFuture<Long> fast = registry.reload(() -> third);
+
+        assertEquals(2, slow.join());
+        assertEquals(3, fast.join());
+        assertSame(third, registry.current());
+    }
+
+    @Test
+    void reloadsShareTheQueuedBuild() throws InterruptedException {
+        DictInterface dictionary = dictionary("word");
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DictionaryRegistry registry = new DictionaryRegistry(dictionary, () -> {
+            builds.incrementAndGet();
+            started.countDown();
+            release.await();
+            return dictionary;
+        });
+
+        CompletableFuture<Long> running = registry.reload();
+        started.await();
+        Set<CompletableFuture<Long>> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 1000; i++) {
+            queued.add(registry.reload());
+        }
+        release.countDown();
+
+        assertEquals(1, queued.size());
+        assertEquals(2, running.join());
+        assertEquals(3, queued.iterator().next().join());
+        assertEquals(2, builds.get());
+        // Once the queued build has started, a new reload gets a build of its own
+        assertEquals(4, registry.reload().join());
+        assertEquals(3, builds.get());
+    }
+
+    private static DictInterface dictionary(String word) {
+        TrieDictionary dictionary = new TrieDictionary();
+        dictionary.add(word);
+        return dictionary;
+    }
+}
@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that IncrementalSolver keeps the same words as a full solve of the
+ * board after every change, on boards small enough to be solved again in
+ * full and on boards big enough to be solved around the changed tile only.
+ */
+class IncrementalSolverTest {
+    private static final int CHANGES = 150;
+
+    private static DictInterface dawg;
+    private static DictInterface trie;
+
+    @BeforeAll
+    static void loadDictionaries() throws IOException {
+        List<String> words = DictionaryLoader.readNormalizedWords(Paths.get("dict8.txt"), BoggleGame.MIN_WORD_LENGTH);
+        dawg = DawgDictionary.build(words);
+        trie = new TrieDictionary();
+        trie.addAll(words);
+    }
+
+    @Test
+    void matchesFullSolveOnSmallBoards() {
+        checkRandomChanges(4, dawg, new UniformBoardGenerator(), 1);
+        checkRandomChanges(7, trie, new UniformBoardGenerator(), 2);
+    }
+
+    @Test
+    void matchesFullSolveOnBigBoards() {
+        // Wider than twice the longest word, so changes are solved locally
+        checkRandomChanges(20, dawg, new UniformBoardGenerator(), 3);
+    }
+
+    @Test
+    void matchesFullSolveWithQuTiles() {
+        checkRandomChanges(5, dawg, DiceBoardGenerator.big(), 4);
+        checkRandomChanges(18, trie, DiceBoardGenerator.big(), 5);
+    }
+
+    @Test
+    void keepsValidPaths() {
+        BoggleGame game = new BoggleGame();
+        char[][] board = game.generateBoggleBoard(20, 6L);
+        IncrementalSolver incremental = new IncrementalSolver(board, dawg, false);
+        SplittableRandom random = new SplittableRandom(6);
+        for (int change = 0; change < 20; change++) {
+            incremental.setLetter(random.nextInt(20), random.nextInt(20), (char) ('A' + random.nextInt(26)));
+        }
+        char[][] changed = incremental.board();
+        for (String word : incremental.words()) {
+            assertTrue(game.checkTiles(changed, incremental.path(word), word), word);
+        }
+    }
+
+    private static void checkRandomChanges(int size, DictInterface dictionary, BoardGenerator generator, long seed) {
+        BoggleGame game = new BoggleGame(null, generator);
+        char[][] board = game.generateBoggleBoard(size, seed);
+        IncrementalSolver incremental = new IncrementalSolver(board, dictionary, generator.hasQuTiles());
+        assertEquals(game.findAllWords(board, dictionary), incremental.words());
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int change = 0; change < CHANGES; change++) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            char letter = (char) ('A' + random.nextInt(26));
+            board[row][col] = letter;
+            int count = incremental.setLetter(row, col, letter);
+
+            assertEquals(game.findAllWords(board, dictionary), incremental.words(),
+                         "after changing (" + row + ", " + col + ") to " + letter);
+            assertEquals(incremental.words().size(), count);
+            assertEquals(Character.toLowerCase(letter), incremental.letter(row, col));
+        }
+        assertArrayEquals(board, incremental.board());
+    }
+}
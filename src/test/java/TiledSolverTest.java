@@ -0,0 +1,96 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that TiledSolver finds exactly the words of a search of the whole
+ * board, each once, whatever the tile size: the halo around each tile must
+ * hold every path that starts inside it.
+ */
+class TiledSolverTest {
+    private static DictInterface dictionary;
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        dictionary = DawgDictionary.build(DictionaryLoader.readNormalizedWords(Paths.get("dict8.txt"),
+                                                                               BoggleGame.MIN_WORD_LENGTH));
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void matchesWholeBoardForEveryTileSize() {
+        char[][] board = new BoggleGame().generateBoggleBoard(30, 1L);
+        for (int tileSize : new int[] {1, 2, 3, 7, 8, 16, 29, 30, 64}) {
+            assertSameWords(board, false, tileSize, BoggleGame.MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH);
+        }
+    }
+
+    @Test
+    void matchesWholeBoardOnOddShapes() {
+        BoardGenerator generator = new UniformBoardGenerator();
+        for (int[] shape : new int[][] {{1, 4}, {4, 1}, {3, 17}, {41, 23}}) {
+            char[][] square = generator.generate(Math.max(shape[0], shape[1]),
+                                                 new SplittableRandom(shape[0] * 100L + shape[1]));
+            char[][] board = new char[shape[0]][];
+            for (int row = 0; row < shape[0]; row++) {
+                board[row] = Arrays.copyOf(square[row], shape[1]);
+            }
+            for (int tileSize : new int[] {1, 5, 64}) {
+                assertSameWords(board, false, tileSize, BoggleGame.MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH);
+            }
+        }
+    }
+
+    @Test
+    void matchesWholeBoardWithBoundedLengths() {
+        char[][] board = new BoggleGame().generateBoggleBoard(25, 2L);
+        // A bounded maxLength shrinks the halo
+        assertSameWords(board, false, 4, BoggleGame.MIN_WORD_LENGTH, 4);
+        assertSameWords(board, false, 6, 5, 6);
+        assertSameWords(board, false, 3, 8, 8);
+    }
+
+    @Test
+    void matchesWholeBoardWithQuTiles() {
+        char[][] board = new BoggleGame(null, DiceBoardGenerator.big()).generateBoggleBoard(30, 3L);
+        for (int tileSize : new int[] {1, 4, 9, 64}) {
+            assertSameWords(board, true, tileSize, BoggleGame.MIN_WORD_LENGTH, BoardSolver.NO_MAX_LENGTH);
+        }
+    }
+
+    private static void assertSameWords(char[][] board, boolean quTiles, int tileSize, int minLength,
+                                        int maxLength) {
+        Set<String> expected = new HashSet<>();
+        new BoardSolver().findWords(new PreparedBoard(board, quTiles), dictionary, minLength, maxLength, expected);
+
+        Set<String> found = ConcurrentHashMap.newKeySet();
+        Set<String> repeated = ConcurrentHashMap.newKeySet();
+        TiledSolver.findWords(PackedBoard.of(board), dictionary, minLength, maxLength, quTiles, tileSize, pool,
+                              word -> {
+                                  if (!found.add(word.toString())) {
+                                      repeated.add(word.toString());
+                                  }
+                              });
+
+        String where = board.length + "x" + board[0].length + " board, tiles of " + tileSize;
+        assertEquals(expected, found, where);
+        assertTrue(repeated.isEmpty(), where + " reported twice: " + repeated);
+    }
+}